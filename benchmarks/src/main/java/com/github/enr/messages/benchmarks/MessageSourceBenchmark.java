@@ -0,0 +1,143 @@
+package com.github.enr.messages.benchmarks;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.enr.messages.Context;
+import com.github.enr.messages.MessageKey;
+import com.github.enr.messages.MessageKeys;
+import com.github.enr.messages.RenderedMessageCache;
+import com.github.enr.messages.ResourceBundleMessageSource;
+
+/**
+ * Throughput of message resolution.
+ *
+ * <p>
+ * Thread count and allocation profiling are set from the command line, see {@code .sdlc/bench}:
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar -t 4 -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageSourceBenchmark {
+
+  private static final List<String> BATCH_KEYS =
+      List.of("welcome.message", "main.plain", "main.args", "fallback.plain", "missing.key");
+
+  private static final MessageKey MAIN_PLAIN = MessageKeys.of("welcome.message", "main.plain").get(1);
+
+  /** Bundles as loaded, flat tables or compact flat tables. */
+  @Param({"bundles", "flat", "compact"})
+  public String storage;
+
+  private ResourceBundleMessageSource source;
+  private ResourceBundleMessageSource defaultLocaleFallbackSource;
+  private ResourceBundleMessageSource resultCacheSource;
+  private Context english;
+  private Context italian;
+
+  @Setup
+  public void setUp() {
+    boolean flatTables = storage.equals("flat");
+    boolean compactStorage = storage.equals("compact");
+    source = ResourceBundleMessageSource.forResource("bench.main").withFallbackResource("bench.fallback")
+        .withDefaultLocale(Locale.ENGLISH).withFlatTables(flatTables).withCompactStorage(compactStorage).build();
+    defaultLocaleFallbackSource = ResourceBundleMessageSource.forResource("bench.main")
+        .withFallbackResource("bench.fallback").withDefaultLocale(Locale.ENGLISH).withDefaultLocaleFallback(true)
+        .withFlatTables(flatTables).withCompactStorage(compactStorage).build();
+    resultCacheSource = ResourceBundleMessageSource.forResource("bench.main").withFallbackResource("bench.fallback")
+        .withDefaultLocale(Locale.ENGLISH).withFlatTables(flatTables).withCompactStorage(compactStorage)
+        .withResultCache(new RenderedMessageCache()).build();
+    english = Context.of(Locale.ENGLISH);
+    italian = Context.of(Locale.ITALIAN);
+    // load the bundles before measuring
+    source.msg("main.plain", italian);
+    defaultLocaleFallbackSource.msg("main.plain", italian);
+  }
+
+  @Benchmark
+  public String mainBundleHit() {
+    return source.msg("main.plain", english);
+  }
+
+  @Benchmark
+  public String mainBundleHitById() {
+    return source.msgFor(MAIN_PLAIN, english);
+  }
+
+  @Benchmark
+  public String fallbackBundleHit() {
+    return source.msg("fallback.plain", english);
+  }
+
+  @Benchmark
+  public String missingKey() {
+    return source.msg("missing.key", english);
+  }
+
+  @Benchmark
+  public String withoutArgs() {
+    return source.msg("main.args", italian);
+  }
+
+  @Benchmark
+  public String withArgs() {
+    return source.msg("main.args", italian, "Mario", 3);
+  }
+
+  @Benchmark
+  public String withArgsResultCache() {
+    return resultCacheSource.msg("main.args", italian, "Mario", 3);
+  }
+
+  @Benchmark
+  public String withNumberFormat() {
+    return source.msg("main.number", italian, "Mario", 1234);
+  }
+
+  @Benchmark
+  public StringBuilder withArgsToStringBuilder(Output output) {
+    output.sb.setLength(0);
+    return source.msgTo(output.sb, "main.args", italian, "Mario", "tre");
+  }
+
+  @Benchmark
+  public String defaultLocaleFallback() {
+    return defaultLocaleFallbackSource.msg("default.only", italian);
+  }
+
+  @Benchmark
+  public Map<String, String> batch() {
+    return source.msgs(BATCH_KEYS, italian);
+  }
+
+  @Benchmark
+  public Map<String, String> allMessagesKeyAndValue() {
+    return source.getAllMessagesKeyAndValue(italian);
+  }
+
+  @State(Scope.Thread)
+  public static class Output {
+    final StringBuilder sb = new StringBuilder(256);
+  }
+}
@@ -0,0 +1,41 @@
+package com.github.enr.messages;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Resolution of messages never blocking the caller on loading: messages of a locale already loaded are returned in
+ * completed futures, otherwise the futures complete once the locale is loaded in background.
+ */
+public interface AsyncMessageSource {
+
+  /**
+   * Resolves a message.
+   *
+   * @param key The required key.
+   * @param context The context containing the locale.
+   * @param args The message arguments.
+   * @return The future message.
+   */
+  CompletableFuture<String> msgAsync(String key, Context context, Object... args);
+
+  /**
+   * Resolves many messages without arguments for the same context.
+   *
+   * @param keys The required keys.
+   * @param context The context containing the locale.
+   * @return The future map from each key to its message, in the iteration order of the given keys.
+   */
+  CompletableFuture<Map<String, String>> msgsAsync(Collection<String> keys, Context context);
+
+  /**
+   * Resolves many messages with their arguments for the same context.
+   *
+   * @param requests The keys with their arguments.
+   * @param context The context containing the locale.
+   * @return The future messages, in the same order of the requests.
+   */
+  CompletableFuture<String[]> msgsWithArgsAsync(List<MessageRequest> requests, Context context);
+}
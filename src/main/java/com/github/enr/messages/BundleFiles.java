@@ -0,0 +1,152 @@
+package com.github.enr.messages;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Finds the properties files of a bundle on the classpath, ie for {@code messages.test}
+ * {@code messages/test.properties}, {@code messages/test_it.properties} and so on.
+ */
+final class BundleFiles {
+
+  private static final String EXTENSION = ".properties";
+
+  private BundleFiles() {
+  }
+
+  /**
+   * Lists the bundle files in the classpath directories. Files packaged in jars are not included.
+   */
+  static List<Path> findFiles(ClassLoader classLoader, String baseName) {
+    List<Path> files = new ArrayList<>();
+    Location location = new Location(baseName);
+    for (URL url : resources(classLoader, location.dir)) {
+      if ("file".equals(url.getProtocol())) {
+        try {
+          listFiles(Path.of(url.toURI()), location.prefix, files);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        } catch (URISyntaxException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+    }
+    files.sort(null);
+    return files;
+  }
+
+  /**
+   * Finds the locales a bundle is available in, looking both in classpath directories and jars. The base bundle (no
+   * locale suffix) is reported as {@link Locale#ROOT}.
+   */
+  static Set<Locale> findLocales(ClassLoader classLoader, String baseName) {
+    Location location = new Location(baseName);
+    Set<String> names = new LinkedHashSet<>();
+    for (URL url : resources(classLoader, location.dir)) {
+      try {
+        if ("file".equals(url.getProtocol())) {
+          List<Path> files = new ArrayList<>();
+          listFiles(Path.of(url.toURI()), location.prefix, files);
+          files.forEach(f -> names.add(f.getFileName().toString()));
+        } else if ("jar".equals(url.getProtocol())) {
+          listJarEntries(url, location, names);
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      } catch (URISyntaxException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    Set<Locale> locales = new LinkedHashSet<>();
+    for (String name : names) {
+      locales.add(toLocale(name.substring(location.prefix.length(), name.length() - EXTENSION.length())));
+    }
+    return locales;
+  }
+
+  private static Locale toLocale(String suffix) {
+    if (suffix.isEmpty()) {
+      return Locale.ROOT;
+    }
+    String[] parts = suffix.substring(1).split("_", 3);
+    return new Locale(parts[0], parts.length > 1 ? parts[1] : "", parts.length > 2 ? parts[2] : "");
+  }
+
+  private static List<URL> resources(ClassLoader classLoader, String dir) {
+    try {
+      List<URL> urls = new ArrayList<>();
+      Enumeration<URL> resources = classLoader.getResources(dir);
+      while (resources.hasMoreElements()) {
+        urls.add(resources.nextElement());
+      }
+      return urls;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void listFiles(Path dir, String prefix, List<Path> files) throws IOException {
+    if (!Files.isDirectory(dir)) {
+      return;
+    }
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, prefix + "*" + EXTENSION)) {
+      for (Path file : stream) {
+        if (isBundleFile(file.getFileName().toString(), prefix)) {
+          files.add(file);
+        }
+      }
+    }
+  }
+
+  private static void listJarEntries(URL url, Location location, Set<String> names) throws IOException {
+    URLConnection connection = url.openConnection();
+    if (!(connection instanceof JarURLConnection jarConnection)) {
+      return;
+    }
+    jarConnection.setUseCaches(false);
+    String entryPrefix = location.dir.isEmpty() ? "" : location.dir + "/";
+    try (JarFile jar = jarConnection.getJarFile()) {
+      Enumeration<JarEntry> entries = jar.entries();
+      while (entries.hasMoreElements()) {
+        String entryName = entries.nextElement().getName();
+        if (entryName.startsWith(entryPrefix) && entryName.indexOf('/', entryPrefix.length()) < 0) {
+          String name = entryName.substring(entryPrefix.length());
+          if (isBundleFile(name, location.prefix)) {
+            names.add(name);
+          }
+        }
+      }
+    }
+  }
+
+  private static boolean isBundleFile(String name, String prefix) {
+    return name.equals(prefix + EXTENSION) || (name.startsWith(prefix + "_") && name.endsWith(EXTENSION));
+  }
+
+  private static final class Location {
+    private final String dir;
+    private final String prefix;
+
+    private Location(String baseName) {
+      String path = baseName.replace('.', '/');
+      int slash = path.lastIndexOf('/');
+      this.dir = slash < 0 ? "" : path.substring(0, slash);
+      this.prefix = path.substring(slash + 1);
+    }
+  }
+}
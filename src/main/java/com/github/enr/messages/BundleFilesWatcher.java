@@ -0,0 +1,66 @@
+package com.github.enr.messages;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Detects changes to the properties files of some bundles, polling their modification times.
+ *
+ * <p>
+ * Only files on disk (ie exploded classpath entries) are watched, bundles packaged in jars never change.
+ */
+class BundleFilesWatcher {
+
+  private final ClassLoader classLoader;
+  private final List<String> baseNames;
+  private long fingerprint;
+
+  BundleFilesWatcher(ClassLoader classLoader, String... baseNames) {
+    this.classLoader = classLoader;
+    this.baseNames = new ArrayList<>();
+    for (String baseName : baseNames) {
+      if (baseName != null) {
+        this.baseNames.add(baseName);
+      }
+    }
+    this.fingerprint = computeFingerprint();
+  }
+
+  /**
+   * Checks the files, returning {@code true} if anything changed since the previous check.
+   */
+  boolean hasChanged() {
+    long current = computeFingerprint();
+    if (current == fingerprint) {
+      return false;
+    }
+    fingerprint = current;
+    return true;
+  }
+
+  List<Path> findFiles() {
+    List<Path> files = new ArrayList<>();
+    for (String baseName : baseNames) {
+      files.addAll(BundleFiles.findFiles(classLoader, baseName));
+    }
+    return files;
+  }
+
+  private long computeFingerprint() {
+    long hash = 17;
+    for (Path file : findFiles()) {
+      try {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        hash = 31 * hash + Objects.hash(file.toString(), attributes.lastModifiedTime(), attributes.size());
+      } catch (IOException e) {
+        // deleted between listing and reading: the listing change is enough to spot it
+      }
+    }
+    return hash;
+  }
+}
@@ -0,0 +1,82 @@
+package com.github.enr.messages;
+
+/**
+ * Snapshot of the state of the caches of a message source.
+ */
+public class CacheStatistics {
+  private final long formatCacheHits;
+  private final long formatCacheMisses;
+  private final int formatCacheSize;
+  private final int loadedLocales;
+  private final int missingBundles;
+  private final long missingBundleHits;
+  private final int missingKeys;
+  private final long missingKeyHits;
+
+  CacheStatistics(MessageFormatCache formatCache, int loadedLocales, int missingBundles, long missingBundleHits,
+      int missingKeys, long missingKeyHits) {
+    this.formatCacheHits = formatCache.getHitCount();
+    this.formatCacheMisses = formatCache.getMissCount();
+    this.formatCacheSize = formatCache.size();
+    this.loadedLocales = loadedLocales;
+    this.missingBundles = missingBundles;
+    this.missingBundleHits = missingBundleHits;
+    this.missingKeys = missingKeys;
+    this.missingKeyHits = missingKeyHits;
+  }
+
+  public long getFormatCacheHits() {
+    return formatCacheHits;
+  }
+
+  public long getFormatCacheMisses() {
+    return formatCacheMisses;
+  }
+
+  public int getFormatCacheSize() {
+    return formatCacheSize;
+  }
+
+  /**
+   * Returns the number of locales with a main bundle loaded.
+   */
+  public int getLoadedLocales() {
+    return loadedLocales;
+  }
+
+  /**
+   * Returns the number of (bundle, locale) pairs known to be missing.
+   */
+  public int getMissingBundles() {
+    return missingBundles;
+  }
+
+  /**
+   * Returns how many times a bundle was not loaded again because known to be missing.
+   */
+  public long getMissingBundleHits() {
+    return missingBundleHits;
+  }
+
+  /**
+   * Returns the number of (key, locale) pairs known to be missing.
+   */
+  public int getMissingKeys() {
+    return missingKeys;
+  }
+
+  /**
+   * Returns how many times a key was not looked up in the bundles because known to be missing.
+   */
+  public long getMissingKeyHits() {
+    return missingKeyHits;
+  }
+
+  @Override
+  public String toString() {
+    return "CacheStatistics[formatCacheHits=" + formatCacheHits + ", formatCacheMisses=" + formatCacheMisses
+        + ", formatCacheSize=" + formatCacheSize + ", loadedLocales=" + loadedLocales + ", missingBundles="
+        + missingBundles + ", missingBundleHits=" + missingBundleHits + ", missingKeys=" + missingKeys
+        + ", missingKeyHits=" + missingKeyHits + "]";
+  }
+}
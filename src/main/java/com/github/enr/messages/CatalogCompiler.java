@@ -0,0 +1,92 @@
+package com.github.enr.messages;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.Set;
+
+/**
+ * Build time compiler of properties bundles into the catalogs read by {@link MappedCatalogMessageSource}.
+ *
+ * <p>
+ * A catalog is written for every locale the bundles are found in on the classpath; it holds the main bundle messages,
+ * then the fallback bundle ones, each with its parent chain resolved. Usage:
+ *
+ * <pre>
+ * java -cp messages.jar:target/classes com.github.enr.messages.CatalogCompiler OUTPUT_DIR RESOURCE [FALLBACK_RESOURCE]
+ * </pre>
+ */
+public final class CatalogCompiler {
+
+  private static final ResourceBundle.Control NO_FALLBACK =
+      ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES);
+
+  private CatalogCompiler() {
+  }
+
+  /**
+   * Compiles the bundles found through the given class loader.
+   *
+   * @param classLoader The class loader to find the bundles.
+   * @param resource The main bundle base name.
+   * @param fallbackResource The fallback bundle base name, can be {@code null}.
+   * @param outputDirectory The directory to write the catalogs to.
+   * @return The written catalog files.
+   * @throws IOException If a catalog could not be written.
+   */
+  public static List<Path> compile(ClassLoader classLoader, String resource, String fallbackResource,
+      Path outputDirectory) throws IOException {
+    Set<Locale> locales = new LinkedHashSet<>(BundleFiles.findLocales(classLoader, resource));
+    if (fallbackResource != null) {
+      locales.addAll(BundleFiles.findLocales(classLoader, fallbackResource));
+    }
+    Files.createDirectories(outputDirectory);
+    List<Path> files = new ArrayList<>();
+    for (Locale locale : locales) {
+      Map<String, String> messages = new HashMap<>();
+      collect(classLoader, resource, locale, messages);
+      if (fallbackResource != null) {
+        collect(classLoader, fallbackResource, locale, messages);
+      }
+      Path file = outputDirectory.resolve(MappedCatalog.fileName(resource, locale));
+      MappedCatalog.write(messages, file);
+      files.add(file);
+    }
+    return files;
+  }
+
+  private static void collect(ClassLoader classLoader, String resource, Locale locale, Map<String, String> messages) {
+    ResourceBundle bundle;
+    try {
+      bundle = ResourceBundle.getBundle(resource, locale, classLoader, NO_FALLBACK);
+    } catch (MissingResourceException e) {
+      return;
+    }
+    Enumeration<String> keys = bundle.getKeys();
+    while (keys.hasMoreElements()) {
+      String key = keys.nextElement();
+      messages.putIfAbsent(key, bundle.getString(key));
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2 || args.length > 3) {
+      System.err.println("Usage: CatalogCompiler OUTPUT_DIR RESOURCE [FALLBACK_RESOURCE]");
+      System.exit(1);
+    }
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    List<Path> files = compile(classLoader, args[1], args.length > 2 ? args[2] : null, Path.of(args[0]));
+    for (Path file : files) {
+      System.out.println(file);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.github.enr.messages;
+
+/**
+ * Estimate of the heap retained by the messages of the loaded locales.
+ *
+ * <p>
+ * Strings are counted once per instance, so the same text held by two locales counts twice unless it is shared. Table
+ * overhead is approximated per entry, assuming compressed object pointers.
+ */
+public class CatalogMemory {
+  private final int locales;
+  private final int entries;
+  private final int keyInstances;
+  private final int valueInstances;
+  private final long stringBytes;
+  private final long tableBytes;
+
+  CatalogMemory(int locales, int entries, int keyInstances, int valueInstances, long stringBytes, long tableBytes) {
+    this.locales = locales;
+    this.entries = entries;
+    this.keyInstances = keyInstances;
+    this.valueInstances = valueInstances;
+    this.stringBytes = stringBytes;
+    this.tableBytes = tableBytes;
+  }
+
+  public int getLocales() {
+    return locales;
+  }
+
+  /**
+   * Returns the number of messages, summed over the locales.
+   */
+  public int getEntries() {
+    return entries;
+  }
+
+  /**
+   * Returns the number of distinct key instances.
+   */
+  public int getKeyInstances() {
+    return keyInstances;
+  }
+
+  /**
+   * Returns the number of distinct value instances.
+   */
+  public int getValueInstances() {
+    return valueInstances;
+  }
+
+  /**
+   * Returns the estimated size of the key and value strings.
+   */
+  public long getStringBytes() {
+    return stringBytes;
+  }
+
+  /**
+   * Returns the estimated size of the tables holding the strings.
+   */
+  public long getTableBytes() {
+    return tableBytes;
+  }
+
+  public long getEstimatedBytes() {
+    return stringBytes + tableBytes;
+  }
+
+  /**
+   * Returns the estimated size of a string: object header and fields, plus its array of one byte per char if all chars
+   * are Latin-1, two otherwise.
+   */
+  static long stringBytes(String value) {
+    boolean latin1 = true;
+    for (int i = 0; i < value.length() && latin1; i++) {
+      latin1 = value.charAt(i) < 256;
+    }
+    long array = 16L + (latin1 ? value.length() : 2L * value.length());
+    return 24L + ((array + 7) & ~7L);
+  }
+
+  @Override
+  public String toString() {
+    return "CatalogMemory[locales=" + locales + ", entries=" + entries + ", keyInstances=" + keyInstances
+        + ", valueInstances=" + valueInstances + ", stringBytes=" + stringBytes + ", tableBytes=" + tableBytes + "]";
+  }
+}
@@ -0,0 +1,124 @@
+package com.github.enr.messages;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable messages of a locale stored as an array of values indexed by the ids of a {@link KeyIndex} shared with the
+ * other locales: keys are not repeated per locale and equal values are the same instance.
+ *
+ * <p>
+ * A lookup costs a probe of the key index plus an array read.
+ */
+final class CompactTable extends AbstractMap<String, String> {
+
+  private final KeyIndex index;
+  private final String[] values;
+  private final int size;
+  private Set<Map.Entry<String, String>> entrySet;
+
+  private CompactTable(KeyIndex index, String[] values, int size) {
+    this.index = index;
+    this.values = values;
+    this.size = size;
+  }
+
+  /**
+   * Copies the given messages, registering their keys in the index and replacing their values with the instances of
+   * the pool.
+   */
+  static CompactTable of(Map<String, String> messages, KeyIndex index, ConcurrentHashMap<String, String> valuePool) {
+    int[] ids = new int[messages.size()];
+    String[] pooled = new String[messages.size()];
+    int max = -1;
+    int i = 0;
+    for (Map.Entry<String, String> entry : messages.entrySet()) {
+      ids[i] = index.register(entry.getKey());
+      String value = entry.getValue();
+      String previous = valuePool.putIfAbsent(value, value);
+      pooled[i] = previous != null ? previous : value;
+      max = Math.max(max, ids[i]);
+      i++;
+    }
+    String[] values = new String[max + 1];
+    for (int j = 0; j < i; j++) {
+      values[ids[j]] = pooled[j];
+    }
+    return new CompactTable(index, values, i);
+  }
+
+  @Override
+  public String get(Object key) {
+    int id = index.id(key);
+    return id >= 0 && id < values.length ? values[id] : null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the length of the values array, the slots taken by this table.
+   */
+  int capacity() {
+    return values.length;
+  }
+
+  @Override
+  public Set<Map.Entry<String, String>> entrySet() {
+    Set<Map.Entry<String, String>> entries = entrySet;
+    if (entries == null) {
+      entries = new Entries();
+      entrySet = entries;
+    }
+    return entries;
+  }
+
+  private final class Entries extends AbstractSet<Map.Entry<String, String>> {
+    @Override
+    public Iterator<Map.Entry<String, String>> iterator() {
+      return new Iterator<>() {
+        private int next = advance(0);
+
+        private int advance(int from) {
+          int id = from;
+          while (id < values.length && values[id] == null) {
+            id++;
+          }
+          return id;
+        }
+
+        @Override
+        public boolean hasNext() {
+          return next < values.length;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+          if (next >= values.length) {
+            throw new NoSuchElementException();
+          }
+          Map.Entry<String, String> entry = new SimpleImmutableEntry<>(index.key(next), values[next]);
+          next = advance(next + 1);
+          return entry;
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
@@ -1,18 +1,69 @@
 package com.github.enr.messages;
 
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Context {
+
+  /**
+   * Maximum number of canonical contexts, hence of slots.
+   */
+  public static final int MAX_SLOTS = 256;
+
+  private static final ConcurrentHashMap<Locale, Context> CANONICAL = new ConcurrentHashMap<>();
+  private static final AtomicInteger NEXT_SLOT = new AtomicInteger();
+
   private final Locale locale;
+  private final int slot;
 
   public Context(Locale locale) {
+    this(locale, -1);
+  }
+
+  private Context(Locale locale, int slot) {
     if (locale == null) {
       throw new IllegalArgumentException("Locale must not be null.");
     }
     this.locale = locale;
+    this.slot = slot;
+  }
+
+  /**
+   * Returns the canonical context of a locale, the same instance on every call. Canonical contexts have a slot, so
+   * that message sources find their per-locale data by array index instead of hashing the locale.
+   *
+   * <p>
+   * Past {@value #MAX_SLOTS} locales new contexts get no slot.
+   *
+   * @param locale The locale.
+   * @return The canonical context.
+   */
+  public static Context of(Locale locale) {
+    if (locale == null) {
+      throw new IllegalArgumentException("Locale must not be null.");
+    }
+    Context context = CANONICAL.get(locale);
+    if (context != null) {
+      return context;
+    }
+    if (CANONICAL.size() >= MAX_SLOTS) {
+      return new Context(locale);
+    }
+    return CANONICAL.computeIfAbsent(locale, loc -> {
+      int slot = NEXT_SLOT.getAndIncrement();
+      return new Context(loc, slot < MAX_SLOTS ? slot : -1);
+    });
   }
 
   public Locale getLocale() {
     return locale;
   }
+
+  /**
+   * Returns the slot index of a canonical context, from {@code 0} to {@value #MAX_SLOTS} excluded, or {@code -1}.
+   */
+  public int getSlot() {
+    return slot;
+  }
 }
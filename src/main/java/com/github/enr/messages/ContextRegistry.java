@@ -0,0 +1,153 @@
+package com.github.enr.messages;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves locales, language tags and {@code Accept-Language} headers to the canonical {@link Context} of the best
+ * supported locale, caching the resolution.
+ *
+ * <p>
+ * Without supported locales every locale is accepted as it is. Requested locales are arbitrary client input, so only
+ * the supported and the default locale get canonical contexts, shared JVM-wide: the others get plain contexts.
+ */
+public class ContextRegistry {
+
+  /**
+   * Maximum number of cached resolutions of locales, language tags and headers.
+   */
+  public static final int MAX_CACHED_RESOLUTIONS = 1024;
+
+  private final List<Locale> supportedLocales;
+  private final Context defaultContext;
+  private final ConcurrentHashMap<Locale, Context> byLocale = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, Context> byLanguageTag = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, Context> byAcceptLanguage = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a registry.
+   *
+   * @param supportedLocales The supported locales, in order of preference.
+   * @param defaultLocale The locale used when none of the requested ones is supported.
+   */
+  public ContextRegistry(Collection<Locale> supportedLocales, Locale defaultLocale) {
+    if (supportedLocales == null || defaultLocale == null) {
+      throw new IllegalArgumentException("Supported locales and default locale must not be null.");
+    }
+    this.supportedLocales = List.copyOf(supportedLocales);
+    this.defaultContext = Context.of(defaultLocale);
+  }
+
+  /**
+   * Creates a registry accepting every locale.
+   */
+  public ContextRegistry(Locale defaultLocale) {
+    this(List.of(), defaultLocale);
+  }
+
+  public Context getDefaultContext() {
+    return defaultContext;
+  }
+
+  public List<Locale> getSupportedLocales() {
+    return supportedLocales;
+  }
+
+  /**
+   * Returns the context of the supported locale best matching the given one: the same locale, or one of its parents
+   * (ie {@code it} for {@code it-CH}), or else the default locale.
+   */
+  public Context forLocale(Locale locale) {
+    if (locale == null) {
+      return defaultContext;
+    }
+    Context context = byLocale.get(locale);
+    if (context != null) {
+      return context;
+    }
+    context = resolve(locale);
+    cache(byLocale, locale, context);
+    return context;
+  }
+
+  /**
+   * Returns the context for a BCP 47 language tag, ie {@code it-IT}.
+   */
+  public Context forLanguageTag(String languageTag) {
+    if (languageTag == null || languageTag.isEmpty()) {
+      return defaultContext;
+    }
+    Context context = byLanguageTag.get(languageTag);
+    if (context != null) {
+      return context;
+    }
+    context = forLocale(Locale.forLanguageTag(languageTag));
+    cache(byLanguageTag, languageTag, context);
+    return context;
+  }
+
+  /**
+   * Returns the context for the value of an {@code Accept-Language} header, ie {@code it-CH,it;q=0.9,en;q=0.8}.
+   * Malformed values resolve to the default locale.
+   */
+  public Context forAcceptLanguage(String acceptLanguage) {
+    if (acceptLanguage == null || acceptLanguage.isBlank()) {
+      return defaultContext;
+    }
+    Context context = byAcceptLanguage.get(acceptLanguage);
+    if (context != null) {
+      return context;
+    }
+    context = resolveAcceptLanguage(acceptLanguage);
+    cache(byAcceptLanguage, acceptLanguage, context);
+    return context;
+  }
+
+  private Context resolveAcceptLanguage(String acceptLanguage) {
+    List<Locale.LanguageRange> ranges;
+    try {
+      ranges = Locale.LanguageRange.parse(acceptLanguage);
+    } catch (IllegalArgumentException e) {
+      return defaultContext;
+    }
+    if (supportedLocales.isEmpty()) {
+      for (Locale.LanguageRange range : ranges) {
+        if (range.getWeight() > 0 && !range.getRange().contains("*")) {
+          return forLocale(Locale.forLanguageTag(range.getRange()));
+        }
+      }
+      return defaultContext;
+    }
+    Locale locale = Locale.lookup(ranges, supportedLocales);
+    return locale != null ? Context.of(locale) : defaultContext;
+  }
+
+  private Context resolve(Locale locale) {
+    if (supportedLocales.isEmpty()) {
+      return locale.equals(defaultContext.getLocale()) ? defaultContext : new Context(locale);
+    }
+    List<Locale> candidates = new ArrayList<>(3);
+    candidates.add(locale);
+    if (!locale.getVariant().isEmpty()) {
+      candidates.add(new Locale(locale.getLanguage(), locale.getCountry()));
+    }
+    if (!locale.getCountry().isEmpty()) {
+      candidates.add(new Locale(locale.getLanguage()));
+    }
+    for (Locale candidate : candidates) {
+      if (supportedLocales.contains(candidate)) {
+        return Context.of(candidate);
+      }
+    }
+    return defaultContext;
+  }
+
+  private static <K> void cache(ConcurrentHashMap<K, Context> cache, K key, Context context) {
+    if (cache.size() < MAX_CACHED_RESOLUTIONS) {
+      cache.putIfAbsent(key, context);
+    }
+  }
+}
@@ -0,0 +1,249 @@
+package com.github.enr.messages;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Metrics counting events per locale with {@link LongAdder}s, so that concurrent lookups do not contend on the
+ * counters. Format latencies are counted in power of two microsecond buckets.
+ *
+ * <p>
+ * Missing keys are tracked only if a top N size is given, up to {@value #MAX_TRACKED_MISSING_KEYS} distinct keys.
+ *
+ * <p>
+ * Counters can be read directly or exported through JMX, see {@link #registerMBean(String)}.
+ */
+public class CountingMessageMetrics implements MessageMetrics, CountingMessageMetricsMXBean {
+
+  public static final int MAX_TRACKED_MISSING_KEYS = 10_000;
+
+  private static final int LATENCY_BUCKETS = 17;
+
+  private final int topMissingKeys;
+  private final ConcurrentHashMap<Locale, Counters> counters = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, LongAdder> missingKeyCounts = new ConcurrentHashMap<>();
+
+  /**
+   * Creates metrics not tracking missing keys.
+   */
+  public CountingMessageMetrics() {
+    this(0);
+  }
+
+  /**
+   * Creates metrics tracking the given number of most requested missing keys.
+   *
+   * @param topMissingKeys The number of missing keys reported, {@code 0} disables tracking.
+   */
+  public CountingMessageMetrics(int topMissingKeys) {
+    if (topMissingKeys < 0) {
+      throw new IllegalArgumentException("Top missing keys must not be negative.");
+    }
+    this.topMissingKeys = topMissingKeys;
+  }
+
+  private static final class Counters {
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder mainBundleHits = new LongAdder();
+    private final LongAdder fallbackBundleHits = new LongAdder();
+    private final LongAdder defaultLocaleFallbacks = new LongAdder();
+    private final LongAdder missingKeys = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder[] formatLatencies = new LongAdder[LATENCY_BUCKETS];
+
+    private Counters() {
+      for (int i = 0; i < LATENCY_BUCKETS; i++) {
+        formatLatencies[i] = new LongAdder();
+      }
+    }
+  }
+
+  private Counters counters(Locale locale) {
+    Counters localeCounters = counters.get(locale);
+    if (localeCounters != null) {
+      return localeCounters;
+    }
+    return counters.computeIfAbsent(locale, loc -> new Counters());
+  }
+
+  @Override
+  public void lookup(Locale locale) {
+    counters(locale).lookups.increment();
+  }
+
+  @Override
+  public void mainBundleHit(Locale locale) {
+    counters(locale).mainBundleHits.increment();
+  }
+
+  @Override
+  public void fallbackBundleHit(Locale locale) {
+    counters(locale).fallbackBundleHits.increment();
+  }
+
+  @Override
+  public void defaultLocaleFallback(Locale locale) {
+    counters(locale).defaultLocaleFallbacks.increment();
+  }
+
+  @Override
+  public void missingKey(Locale locale, String key) {
+    counters(locale).missingKeys.increment();
+    if (topMissingKeys == 0) {
+      return;
+    }
+    String name = locale.toLanguageTag() + ":" + key;
+    LongAdder count = missingKeyCounts.get(name);
+    if (count == null) {
+      if (missingKeyCounts.size() >= MAX_TRACKED_MISSING_KEYS) {
+        return;
+      }
+      count = missingKeyCounts.computeIfAbsent(name, k -> new LongAdder());
+    }
+    count.increment();
+  }
+
+  @Override
+  public void error(Locale locale, String key, Throwable throwable) {
+    counters(locale).errors.increment();
+  }
+
+  @Override
+  public void formatted(Locale locale, long nanos) {
+    counters(locale).formatLatencies[latencyBucket(nanos)].increment();
+  }
+
+  /**
+   * Returns the bucket for a latency: bucket 0 is under 1 microsecond, bucket {@code i} up to
+   * {@code 2^i} microseconds, the last one is unbounded.
+   */
+  static int latencyBucket(long nanos) {
+    long micros = nanos / 1000;
+    if (micros <= 0) {
+      return 0;
+    }
+    return Math.min(64 - Long.numberOfLeadingZeros(micros), LATENCY_BUCKETS - 1);
+  }
+
+  private static String latencyBucketName(int bucket) {
+    if (bucket == LATENCY_BUCKETS - 1) {
+      return ">=" + (1L << (bucket - 1)) + "us";
+    }
+    return "<" + (1L << bucket) + "us";
+  }
+
+  @Override
+  public long getLookups() {
+    return counters.values().stream().mapToLong(c -> c.lookups.sum()).sum();
+  }
+
+  @Override
+  public long getMainBundleHits() {
+    return counters.values().stream().mapToLong(c -> c.mainBundleHits.sum()).sum();
+  }
+
+  @Override
+  public long getFallbackBundleHits() {
+    return counters.values().stream().mapToLong(c -> c.fallbackBundleHits.sum()).sum();
+  }
+
+  @Override
+  public long getDefaultLocaleFallbacks() {
+    return counters.values().stream().mapToLong(c -> c.defaultLocaleFallbacks.sum()).sum();
+  }
+
+  @Override
+  public long getMissingKeys() {
+    return counters.values().stream().mapToLong(c -> c.missingKeys.sum()).sum();
+  }
+
+  @Override
+  public long getErrors() {
+    return counters.values().stream().mapToLong(c -> c.errors.sum()).sum();
+  }
+
+  @Override
+  public Map<String, Long> getFormatLatencyHistogram() {
+    long[] totals = new long[LATENCY_BUCKETS];
+    for (Counters localeCounters : counters.values()) {
+      for (int i = 0; i < LATENCY_BUCKETS; i++) {
+        totals[i] += localeCounters.formatLatencies[i].sum();
+      }
+    }
+    return histogram(totals);
+  }
+
+  private static Map<String, Long> histogram(long[] counts) {
+    Map<String, Long> histogram = new LinkedHashMap<>();
+    for (int i = 0; i < counts.length; i++) {
+      histogram.put(latencyBucketName(i), counts[i]);
+    }
+    return histogram;
+  }
+
+  @Override
+  public Map<String, LocaleMetrics> getLocaleMetrics() {
+    Map<String, LocaleMetrics> metrics = new TreeMap<>();
+    counters.forEach((locale, c) -> metrics.put(locale.toLanguageTag(), toLocaleMetrics(locale, c)));
+    return metrics;
+  }
+
+  /**
+   * Returns the counters of a single locale.
+   */
+  public LocaleMetrics getLocaleMetrics(Locale locale) {
+    Counters localeCounters = counters.get(locale);
+    return toLocaleMetrics(locale, localeCounters != null ? localeCounters : new Counters());
+  }
+
+  private static LocaleMetrics toLocaleMetrics(Locale locale, Counters c) {
+    long[] latencies = new long[LATENCY_BUCKETS];
+    for (int i = 0; i < LATENCY_BUCKETS; i++) {
+      latencies[i] = c.formatLatencies[i].sum();
+    }
+    return new LocaleMetrics(locale.toLanguageTag(), c.lookups.sum(), c.mainBundleHits.sum(),
+        c.fallbackBundleHits.sum(), c.defaultLocaleFallbacks.sum(), c.missingKeys.sum(), c.errors.sum(),
+        histogram(latencies));
+  }
+
+  @Override
+  public Map<String, Long> getTopMissingKeys() {
+    List<Map.Entry<String, Long>> entries = new ArrayList<>();
+    missingKeyCounts.forEach((key, count) -> entries.add(Map.entry(key, count.sum())));
+    entries.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+    Map<String, Long> top = new LinkedHashMap<>();
+    for (Map.Entry<String, Long> entry : entries.subList(0, Math.min(topMissingKeys, entries.size()))) {
+      top.put(entry.getKey(), entry.getValue());
+    }
+    return top;
+  }
+
+  @Override
+  public void reset() {
+    counters.clear();
+    missingKeyCounts.clear();
+  }
+
+  /**
+   * Registers these metrics in the platform MBean server.
+   *
+   * @param name The object name, ie {@code com.github.enr.messages:type=MessageMetrics,name=app}.
+   * @return The registered object name, to unregister the MBean.
+   * @throws JMException If the name is not valid or already registered.
+   */
+  public ObjectName registerMBean(String name) throws JMException {
+    ObjectName objectName = new ObjectName(name);
+    ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+    return objectName;
+  }
+}
@@ -0,0 +1,38 @@
+package com.github.enr.messages;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link CountingMessageMetrics}.
+ */
+public interface CountingMessageMetricsMXBean {
+
+  long getLookups();
+
+  long getMainBundleHits();
+
+  long getFallbackBundleHits();
+
+  long getDefaultLocaleFallbacks();
+
+  long getMissingKeys();
+
+  long getErrors();
+
+  /**
+   * Returns the number of formatted messages by latency bucket.
+   */
+  Map<String, Long> getFormatLatencyHistogram();
+
+  /**
+   * Returns the counters of every locale, keyed by language tag.
+   */
+  Map<String, LocaleMetrics> getLocaleMetrics();
+
+  /**
+   * Returns the most requested missing keys, as {@code locale:key}, with how many times they were requested.
+   */
+  Map<String, Long> getTopMissingKeys();
+
+  void reset();
+}
@@ -0,0 +1,88 @@
+package com.github.enr.messages;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Loads UTF-8 properties files from a directory tree. Resources resolving to files outside the directory, ie
+ * {@code ..secret}, are rejected.
+ */
+final class DirectoryMessageLoader implements MessageLoader {
+
+  private static final String EXTENSION = ".properties";
+
+  private final Path directory;
+
+  DirectoryMessageLoader(Path directory) {
+    if (directory == null) {
+      throw new IllegalArgumentException("Directory must not be null.");
+    }
+    this.directory = directory.toAbsolutePath().normalize();
+  }
+
+  @Override
+  public Map<String, String> load(String resource, Locale locale) throws IOException {
+    Path file = resolve(resource, fileName(resource, locale));
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    } catch (NoSuchFileException e) {
+      return null;
+    }
+    Map<String, String> messages = new HashMap<>();
+    for (String key : properties.stringPropertyNames()) {
+      messages.put(key, properties.getProperty(key));
+    }
+    return messages;
+  }
+
+  @Override
+  public Set<Locale> locales(String resource) {
+    Path base = resolve(resource, resource.replace('.', '/'));
+    Path parent = base.getParent();
+    String prefix = base.getFileName().toString();
+    Set<Locale> locales = new HashSet<>();
+    if (parent == null || !Files.isDirectory(parent)) {
+      return locales;
+    }
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(parent, prefix + "*" + EXTENSION)) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        String suffix = name.substring(prefix.length(), name.length() - EXTENSION.length());
+        if (suffix.isEmpty()) {
+          locales.add(Locale.ROOT);
+        } else if (suffix.startsWith("_")) {
+          locales.add(Locale.forLanguageTag(suffix.substring(1).replace('_', '-')));
+        }
+      }
+    } catch (IOException e) {
+      // nothing to discover
+    }
+    return locales;
+  }
+
+  private Path resolve(String resource, String fileName) {
+    Path file = directory.resolve(fileName).normalize();
+    if (!file.startsWith(directory) || file.equals(directory)) {
+      throw new IllegalArgumentException("Resource '" + resource + "' is outside the directory.");
+    }
+    return file;
+  }
+
+  static String fileName(String resource, Locale locale) {
+    String suffix = locale.toString();
+    String base = resource.replace('.', '/');
+    return suffix.isEmpty() ? base + EXTENSION : base + "_" + suffix + EXTENSION;
+  }
+}
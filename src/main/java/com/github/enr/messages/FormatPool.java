@@ -0,0 +1,39 @@
+package com.github.enr.messages;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Small pool of instances that are not thread-safe, like {@code java.text} formats, reused across calls instead of
+ * being created or cloned every time.
+ *
+ * <p>
+ * A thread borrows the instance of the slot picked by its id and gives it back after use. If the slot is empty,
+ * because another thread holds its instance, a new one is created: the pool never blocks and keeps at most one
+ * instance per slot.
+ */
+final class FormatPool<T> {
+
+  private static final int SLOTS =
+      Math.min(16, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1);
+
+  private final Supplier<T> factory;
+  private final AtomicReferenceArray<T> slots = new AtomicReferenceArray<>(SLOTS);
+
+  FormatPool(Supplier<T> factory) {
+    this.factory = factory;
+  }
+
+  T borrow() {
+    T instance = slots.getAndSet(slot(), null);
+    return instance != null ? instance : factory.get();
+  }
+
+  void release(T instance) {
+    slots.lazySet(slot(), instance);
+  }
+
+  private static int slot() {
+    return (int) Thread.currentThread().getId() & (SLOTS - 1);
+  }
+}
@@ -0,0 +1,156 @@
+package com.github.enr.messages;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Messages serialized once to a UTF-8 JSON object, ie to ship translations to a browser. Keys are sorted, so the same
+ * messages always give the same bytes and the same ETag.
+ *
+ * <p>
+ * Instances are immutable and can be written concurrently to many outputs.
+ */
+public final class JsonCatalog {
+
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final byte[] bytes;
+  private final int count;
+  private final String contentHash;
+
+  private JsonCatalog(byte[] bytes, int count) {
+    this.bytes = bytes;
+    this.count = count;
+    this.contentHash = sha256(bytes);
+  }
+
+  /**
+   * Serializes the given messages.
+   *
+   * @param messages The messages by key.
+   * @return The serialized catalog.
+   */
+  public static JsonCatalog of(Map<String, String> messages) {
+    if (messages == null) {
+      throw new IllegalArgumentException("Messages must not be null.");
+    }
+    SortedMap<String, String> sorted =
+        messages instanceof SortedMap<String, String> s && s.comparator() == null ? s : new TreeMap<>(messages);
+    StringBuilder json = new StringBuilder(64 + sorted.size() * 48);
+    json.append('{');
+    boolean first = true;
+    for (Map.Entry<String, String> entry : sorted.entrySet()) {
+      if (!first) {
+        json.append(',');
+      }
+      first = false;
+      appendString(json, entry.getKey());
+      json.append(':');
+      appendString(json, entry.getValue());
+    }
+    json.append('}');
+    return new JsonCatalog(json.toString().getBytes(StandardCharsets.UTF_8), sorted.size());
+  }
+
+  private static void appendString(StringBuilder json, String value) {
+    json.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> json.append("\\\"");
+        case '\\' -> json.append("\\\\");
+        case '\n' -> json.append("\\n");
+        case '\r' -> json.append("\\r");
+        case '\t' -> json.append("\\t");
+        case '\b' -> json.append("\\b");
+        case '\f' -> json.append("\\f");
+        default -> {
+          // line and paragraph separators are valid JSON but end a line in JavaScript sources
+          if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+            json.append("\\u").append(HEX[c >> 12 & 0xF]).append(HEX[c >> 8 & 0xF]).append(HEX[c >> 4 & 0xF])
+                .append(HEX[c & 0xF]);
+          } else {
+            json.append(c);
+          }
+        }
+      }
+    }
+    json.append('"');
+  }
+
+  private static String sha256(byte[] bytes) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+      StringBuilder hex = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        hex.append(HEX[b >> 4 & 0xF]).append(HEX[b & 0xF]);
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      // every JDK provides SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Returns the number of messages.
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Returns the length of the JSON in bytes, ie for a {@code Content-Length} header.
+   */
+  public int getContentLength() {
+    return bytes.length;
+  }
+
+  /**
+   * Returns the SHA-256 of the JSON bytes, in hex.
+   */
+  public String getContentHash() {
+    return contentHash;
+  }
+
+  /**
+   * Returns a strong ETag, the quoted content hash.
+   */
+  public String getETag() {
+    return '"' + contentHash + '"';
+  }
+
+  /**
+   * Returns a read-only view of the JSON bytes.
+   */
+  public ByteBuffer getBytes() {
+    return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+  }
+
+  public void writeTo(OutputStream out) throws IOException {
+    out.write(bytes);
+  }
+
+  public void writeTo(WritableByteChannel channel) throws IOException {
+    ByteBuffer buffer = getBytes();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /**
+   * Returns the JSON as a string, decoding the bytes.
+   */
+  @Override
+  public String toString() {
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
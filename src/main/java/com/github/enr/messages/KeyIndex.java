@@ -0,0 +1,62 @@
+package com.github.enr.messages;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns a dense int id to every message key, once across all locales, and holds the only copy of each key.
+ *
+ * <p>
+ * Ids are never reused or removed, so tables indexed by id stay valid while the index grows.
+ */
+final class KeyIndex {
+
+  private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+  /** Keys by id, replaced when grown: written under the lock, read without it. */
+  private volatile String[] keys = new String[64];
+  private int size;
+
+  /**
+   * Returns the id of a key, {@code -1} if it has none.
+   */
+  int id(Object key) {
+    Integer id = ids.get(key);
+    return id != null ? id : -1;
+  }
+
+  /**
+   * Returns the id of a key, assigning the next one if it has none.
+   */
+  int register(String key) {
+    Integer id = ids.get(key);
+    if (id != null) {
+      return id;
+    }
+    synchronized (this) {
+      id = ids.get(key);
+      if (id != null) {
+        return id;
+      }
+      String[] current = keys;
+      if (size == current.length) {
+        current = Arrays.copyOf(current, size * 2);
+      }
+      current[size] = key;
+      keys = current;
+      // published last, so that whoever reads the id finds the key
+      ids.put(key, size);
+      return size++;
+    }
+  }
+
+  /**
+   * Returns the key of an id returned by this index.
+   */
+  String key(int id) {
+    return keys[id];
+  }
+
+  int size() {
+    return ids.size();
+  }
+}
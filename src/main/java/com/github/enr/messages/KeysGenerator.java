@@ -0,0 +1,299 @@
+package com.github.enr.messages;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DateFormat;
+import java.text.Format;
+import java.text.MessageFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.lang.model.SourceVersion;
+
+/**
+ * Build time generator of a class holding the keys of properties bundles as {@link MessageKey} constants, with dense
+ * ids, and a typed method per key.
+ *
+ * <p>
+ * Keys are collected from every locale the bundles are found in on the classpath, and sorted. Arguments are typed
+ * after the sub-formats of the templates: {@code Number} for {@code number} and {@code choice}, {@code Date} for
+ * {@code date} and {@code time}, {@code Object} otherwise or where locales disagree. An invalid template fails the
+ * generation. Usage, ie from the {@code exec-maven-plugin} in the {@code generate-sources} phase with the bundles
+ * directory on the classpath:
+ *
+ * <pre>
+ * java -cp messages.jar:src/main/resources com.github.enr.messages.KeysGenerator \
+ *     OUTPUT_DIR CLASS_NAME RESOURCE [FALLBACK_RESOURCE]
+ * </pre>
+ *
+ * A key removed from the bundles then breaks the build of the code using its constant or method, instead of being
+ * reported at runtime by the {@link MissingKeyStrategy}.
+ */
+public final class KeysGenerator {
+
+  private static final ResourceBundle.Control NO_FALLBACK =
+      ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES);
+
+  private static final String OBJECT = "Object";
+
+  private KeysGenerator() {
+  }
+
+  /**
+   * Generates the keys class of the bundles found through the given class loader.
+   *
+   * @param classLoader The class loader to find the bundles.
+   * @param className The fully qualified name of the class to generate.
+   * @param resource The main bundle base name.
+   * @param fallbackResource The fallback bundle base name, can be {@code null}.
+   * @param outputDirectory The source directory to write the class to, in its package directory.
+   * @return The written source file.
+   * @throws IOException If the source file could not be written.
+   */
+  public static Path generate(ClassLoader classLoader, String className, String resource, String fallbackResource,
+      Path outputDirectory) throws IOException {
+    if (className == null || !SourceVersion.isName(className)) {
+      throw new IllegalArgumentException("Invalid class name " + className);
+    }
+    Set<Locale> locales = new LinkedHashSet<>(BundleFiles.findLocales(classLoader, resource));
+    if (fallbackResource != null) {
+      locales.addAll(BundleFiles.findLocales(classLoader, fallbackResource));
+    }
+    Map<String, List<String>> arguments = new TreeMap<>();
+    for (Locale locale : locales) {
+      collect(classLoader, resource, locale, arguments);
+      if (fallbackResource != null) {
+        collect(classLoader, fallbackResource, locale, arguments);
+      }
+    }
+    int dot = className.lastIndexOf('.');
+    Path directory = outputDirectory;
+    if (dot > 0) {
+      directory = outputDirectory.resolve(className.substring(0, dot).replace('.', '/'));
+    }
+    Files.createDirectories(directory);
+    Path file = directory.resolve(className.substring(dot + 1) + ".java");
+    String source = source(className, resource, fallbackResource, arguments);
+    Files.writeString(file, source, StandardCharsets.UTF_8);
+    return file;
+  }
+
+  /**
+   * Adds the keys of a bundle, without parents, merging the argument types of their templates.
+   */
+  private static void collect(ClassLoader classLoader, String resource, Locale locale,
+      Map<String, List<String>> arguments) {
+    ResourceBundle bundle;
+    try {
+      bundle = ResourceBundle.getBundle(resource, locale, classLoader, NO_FALLBACK);
+    } catch (MissingResourceException e) {
+      return;
+    }
+    if (!bundle.getLocale().equals(locale)) {
+      return;
+    }
+    Enumeration<String> keys = bundle.getKeys();
+    while (keys.hasMoreElements()) {
+      String key = keys.nextElement();
+      List<String> types;
+      try {
+        types = argumentTypes(new MessageFormat(bundle.getString(key), locale));
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Invalid template of key " + key + " for locale " + locale, e);
+      }
+      arguments.merge(key, types, KeysGenerator::merge);
+    }
+  }
+
+  private static List<String> argumentTypes(MessageFormat format) {
+    List<String> types = new ArrayList<>();
+    for (Format subFormat : format.getFormatsByArgumentIndex()) {
+      if (subFormat instanceof NumberFormat) {
+        types.add("Number");
+      } else if (subFormat instanceof DateFormat) {
+        types.add("java.util.Date");
+      } else {
+        types.add(OBJECT);
+      }
+    }
+    return types;
+  }
+
+  private static List<String> merge(List<String> types, List<String> other) {
+    List<String> merged = new ArrayList<>();
+    for (int i = 0; i < Math.max(types.size(), other.size()); i++) {
+      String type = i < types.size() ? types.get(i) : other.get(i);
+      String otherType = i < other.size() ? other.get(i) : type;
+      merged.add(type.equals(otherType) ? type : OBJECT);
+    }
+    return merged;
+  }
+
+  private static String source(String className, String resource, String fallbackResource,
+      Map<String, List<String>> arguments) {
+    int dot = className.lastIndexOf('.');
+    String simpleName = className.substring(dot + 1);
+    StringBuilder sb = new StringBuilder();
+    if (dot > 0) {
+      sb.append("package ").append(className, 0, dot).append(";\n\n");
+    }
+    sb.append("import com.github.enr.messages.Context;\n");
+    sb.append("import com.github.enr.messages.MessageKey;\n");
+    sb.append("import com.github.enr.messages.MessageKeys;\n");
+    sb.append("import com.github.enr.messages.MessageSource;\n\n");
+    sb.append("/**\n * Keys of the {@code ").append(resource).append("} bundles");
+    if (fallbackResource != null) {
+      sb.append(" and of the {@code ").append(fallbackResource).append("} fallback bundles");
+    }
+    sb.append(".\n *\n * <p>\n * Generated by {@code ").append(KeysGenerator.class.getName())
+        .append("}, do not edit.\n */\n");
+    sb.append("public final class ").append(simpleName).append(" {\n\n");
+    sb.append("  public static final MessageKeys KEYS = MessageKeys.of(");
+    int i = 0;
+    for (String key : arguments.keySet()) {
+      sb.append(i++ > 0 ? ",\n      " : "\n      ").append(literal(key));
+    }
+    sb.append(");\n");
+
+    // the key set field is taken, a key named keys gets suffixed like any other collision
+    Set<String> constants = new HashSet<>(Set.of("KEYS"));
+    Set<String> methods = new HashSet<>(Set.of("equals", "hashCode", "toString", "getClass", "notify", "notifyAll",
+        "wait", "clone", "finalize"));
+    List<String[]> names = new ArrayList<>();
+    i = 0;
+    for (String key : arguments.keySet()) {
+      names.add(new String[] {unique(constantName(key), i, constants), unique(methodName(key), i, methods)});
+      i++;
+    }
+    i = 0;
+    for (String key : arguments.keySet()) {
+      sb.append("\n  /** <code>").append(javadoc(key)).append("</code> */\n");
+      sb.append("  public static final MessageKey ").append(names.get(i)[0]).append(" = KEYS.get(").append(i)
+          .append(");\n");
+      i++;
+    }
+    sb.append("\n  private ").append(simpleName).append("() {\n  }\n");
+    i = 0;
+    for (Map.Entry<String, List<String>> entry : arguments.entrySet()) {
+      List<String> types = entry.getValue();
+      sb.append("\n  public static String ").append(names.get(i)[1]).append("(MessageSource source, Context context");
+      for (int arg = 0; arg < types.size(); arg++) {
+        sb.append(", ").append(types.get(arg)).append(" arg").append(arg);
+      }
+      sb.append(") {\n    return source.msgFor(").append(names.get(i)[0]).append(", context");
+      for (int arg = 0; arg < types.size(); arg++) {
+        sb.append(", arg").append(arg);
+      }
+      sb.append(");\n  }\n");
+      i++;
+    }
+    sb.append("}\n");
+    return sb.toString();
+  }
+
+  /**
+   * Returns the name, or the name with the key id appended if already taken.
+   */
+  private static String unique(String name, int id, Set<String> taken) {
+    String candidate = SourceVersion.isKeyword(name) ? name + "_" : name;
+    if (!taken.add(candidate)) {
+      // the suffixed name may be taken too, ie by a key ending with the same id
+      String suffixed = candidate + "_" + id;
+      candidate = suffixed;
+      for (int n = 2; !taken.add(candidate); n++) {
+        candidate = suffixed + "_" + n;
+      }
+    }
+    return candidate;
+  }
+
+  static String constantName(String key) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < key.length(); i++) {
+      char c = key.charAt(i);
+      if (Character.isLetterOrDigit(c)) {
+        if (i > 0 && Character.isLowerCase(key.charAt(i - 1)) && Character.isUpperCase(c)) {
+          sb.append('_');
+        }
+        sb.append(Character.toUpperCase(c));
+      } else if (sb.length() > 0 && sb.charAt(sb.length() - 1) != '_') {
+        sb.append('_');
+      }
+    }
+    return identifier(sb.toString());
+  }
+
+  static String methodName(String key) {
+    StringBuilder sb = new StringBuilder();
+    boolean upper = false;
+    for (int i = 0; i < key.length(); i++) {
+      char c = key.charAt(i);
+      if (!Character.isLetterOrDigit(c)) {
+        upper = sb.length() > 0;
+      } else if (upper) {
+        sb.append(Character.toUpperCase(c));
+        upper = false;
+      } else {
+        sb.append(sb.length() == 0 ? Character.toLowerCase(c) : c);
+      }
+    }
+    return identifier(sb.toString());
+  }
+
+  private static String identifier(String name) {
+    int end = name.length();
+    while (end > 0 && name.charAt(end - 1) == '_') {
+      end--;
+    }
+    String trimmed = name.substring(0, end);
+    if (trimmed.isEmpty() || !Character.isJavaIdentifierStart(trimmed.charAt(0))) {
+      return "_" + trimmed;
+    }
+    return trimmed;
+  }
+
+  private static String literal(String value) {
+    StringBuilder sb = new StringBuilder("\"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        sb.append('\\').append(c);
+      } else if (c < 0x20) {
+        // not as unicode escapes, which javac translates before parsing the literal
+        sb.append(String.format("\\%03o", (int) c));
+      } else if (c > 0x7E) {
+        sb.append(String.format("\\u%04x", (int) c));
+      } else {
+        sb.append(c);
+      }
+    }
+    return sb.append('"').toString();
+  }
+
+  private static String javadoc(String key) {
+    // keys are shown as written, without closing the comment, starting tags or being read as unicode escapes
+    return key.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("*/", "*&#47;")
+        .replace("@", "&#64;").replace("\\", "&#92;");
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 3 || args.length > 4) {
+      System.err.println("Usage: KeysGenerator OUTPUT_DIR CLASS_NAME RESOURCE [FALLBACK_RESOURCE]");
+      System.exit(1);
+    }
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    System.out.println(generate(classLoader, args[1], args[2], args.length > 3 ? args[3] : null, Path.of(args[0])));
+  }
+}
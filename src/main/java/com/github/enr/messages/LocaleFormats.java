@@ -0,0 +1,38 @@
+package com.github.enr.messages;
+
+import java.text.DateFormat;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * The number and date formats used by {@code MessageFormat} for arguments without sub-format, pooled per locale and
+ * shared by the templates of a {@link MessageFormatCache}.
+ */
+final class LocaleFormats {
+
+  private final FormatPool<NumberFormat> numbers;
+  private final FormatPool<DateFormat> dates;
+
+  LocaleFormats(Locale locale) {
+    this.numbers = new FormatPool<>(() -> NumberFormat.getInstance(locale));
+    this.dates = new FormatPool<>(() -> DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, locale));
+  }
+
+  String formatNumber(Object number) {
+    NumberFormat format = numbers.borrow();
+    try {
+      return format.format(number);
+    } finally {
+      numbers.release(format);
+    }
+  }
+
+  String formatDate(Object date) {
+    DateFormat format = dates.borrow();
+    try {
+      return format.format(date);
+    } finally {
+      dates.release(format);
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.github.enr.messages;
+
+import java.util.Map;
+
+import javax.management.ConstructorParameters;
+
+/**
+ * Snapshot of the counters of {@link CountingMessageMetrics} for a single locale.
+ */
+public class LocaleMetrics {
+  private final String locale;
+  private final long lookups;
+  private final long mainBundleHits;
+  private final long fallbackBundleHits;
+  private final long defaultLocaleFallbacks;
+  private final long missingKeys;
+  private final long errors;
+  private final Map<String, Long> formatLatencyHistogram;
+
+  @ConstructorParameters({"locale", "lookups", "mainBundleHits", "fallbackBundleHits", "defaultLocaleFallbacks",
+      "missingKeys", "errors", "formatLatencyHistogram"})
+  public LocaleMetrics(String locale, long lookups, long mainBundleHits, long fallbackBundleHits,
+      long defaultLocaleFallbacks, long missingKeys, long errors, Map<String, Long> formatLatencyHistogram) {
+    this.locale = locale;
+    this.lookups = lookups;
+    this.mainBundleHits = mainBundleHits;
+    this.fallbackBundleHits = fallbackBundleHits;
+    this.defaultLocaleFallbacks = defaultLocaleFallbacks;
+    this.missingKeys = missingKeys;
+    this.errors = errors;
+    this.formatLatencyHistogram = formatLatencyHistogram;
+  }
+
+  public String getLocale() {
+    return locale;
+  }
+
+  public long getLookups() {
+    return lookups;
+  }
+
+  public long getMainBundleHits() {
+    return mainBundleHits;
+  }
+
+  public long getFallbackBundleHits() {
+    return fallbackBundleHits;
+  }
+
+  public long getDefaultLocaleFallbacks() {
+    return defaultLocaleFallbacks;
+  }
+
+  public long getMissingKeys() {
+    return missingKeys;
+  }
+
+  public long getErrors() {
+    return errors;
+  }
+
+  public Map<String, Long> getFormatLatencyHistogram() {
+    return formatLatencyHistogram;
+  }
+}
@@ -0,0 +1,49 @@
+package com.github.enr.messages;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+
+/**
+ * Bundle backed by the messages of a {@link MessageLoader}, chained to its parent like the JDK bundles.
+ */
+final class MapResourceBundle extends ResourceBundle {
+
+  private final Map<String, String> messages;
+  private final Locale locale;
+
+  MapResourceBundle(Map<String, String> messages, Locale locale, ResourceBundle parent) {
+    this.messages = Map.copyOf(messages);
+    this.locale = locale;
+    setParent(parent);
+  }
+
+  @Override
+  protected Object handleGetObject(String key) {
+    return messages.get(key);
+  }
+
+  @Override
+  protected Set<String> handleKeySet() {
+    return messages.keySet();
+  }
+
+  @Override
+  public Enumeration<String> getKeys() {
+    if (parent == null) {
+      return Collections.enumeration(messages.keySet());
+    }
+    Set<String> keys = new HashSet<>(messages.keySet());
+    keys.addAll(Collections.list(parent.getKeys()));
+    return Collections.enumeration(keys);
+  }
+
+  @Override
+  public Locale getLocale() {
+    return locale;
+  }
+}
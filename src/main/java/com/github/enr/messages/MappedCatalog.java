@@ -0,0 +1,197 @@
+package com.github.enr.messages;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Read-only message catalog in a compact binary format, memory mapped from a file. Strings are decoded only on access.
+ *
+ * <p>
+ * Layout, big endian:
+ *
+ * <pre>
+ * int magic, int version, int entries count, int slots count (power of two)
+ * slots:   int key hash, int entry offset (-1 if empty) - open addressing, linear probing
+ * entries: int key length, UTF-8 key bytes, int value length, UTF-8 value bytes
+ * </pre>
+ *
+ * Reads use absolute positions only, so a catalog can be shared by many threads.
+ */
+final class MappedCatalog {
+
+  static final String EXTENSION = ".mcat";
+
+  private static final int MAGIC = 0x4D434154;
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 16;
+  private static final int SLOT_SIZE = 8;
+
+  static final MappedCatalog EMPTY = new MappedCatalog(emptyBuffer());
+
+  private final ByteBuffer buffer;
+  private final int count;
+  private final int mask;
+
+  private MappedCatalog(ByteBuffer buffer) {
+    if (buffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("Not a message catalog.");
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new IllegalArgumentException("Unsupported message catalog version " + buffer.getInt(4));
+    }
+    this.buffer = buffer;
+    this.count = buffer.getInt(8);
+    this.mask = buffer.getInt(12) - 1;
+  }
+
+  static MappedCatalog open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      // the mapping stays valid after the channel is closed
+      return new MappedCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * Returns the name of the catalog file for a base name and a locale, ie {@code messages_it.mcat}.
+   */
+  static String fileName(String baseName, Locale locale) {
+    String suffix = locale.toString();
+    return suffix.isEmpty() ? baseName + EXTENSION : baseName + "_" + suffix + EXTENSION;
+  }
+
+  String get(String key) {
+    int hash = hash(key);
+    int slot = hash & mask;
+    while (true) {
+      int slotPosition = HEADER_SIZE + slot * SLOT_SIZE;
+      int offset = buffer.getInt(slotPosition + 4);
+      if (offset < 0) {
+        return null;
+      }
+      if (buffer.getInt(slotPosition) == hash && keyEquals(offset, key)) {
+        int keyLength = buffer.getInt(offset);
+        return decode(offset + 4 + keyLength);
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  int size() {
+    return count;
+  }
+
+  Map<String, String> toMap() {
+    Map<String, String> messages = new HashMap<>();
+    int position = HEADER_SIZE + (mask + 1) * SLOT_SIZE;
+    for (int i = 0; i < count; i++) {
+      String key = decode(position);
+      position += 4 + buffer.getInt(position);
+      messages.put(key, decode(position));
+      position += 4 + buffer.getInt(position);
+    }
+    return messages;
+  }
+
+  private String decode(int position) {
+    int length = buffer.getInt(position);
+    byte[] bytes = new byte[length];
+    buffer.get(position + 4, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Compares the UTF-8 key stored at the given offset with a string, without decoding it.
+   */
+  private boolean keyEquals(int offset, String key) {
+    int length = buffer.getInt(offset);
+    int position = offset + 4;
+    int end = position + length;
+    int i = 0;
+    while (position < end) {
+      if (i >= key.length()) {
+        return false;
+      }
+      int b = buffer.get(position) & 0xFF;
+      int codePoint;
+      if (b < 0x80) {
+        codePoint = b;
+        position += 1;
+      } else if (b < 0xE0) {
+        codePoint = ((b & 0x1F) << 6) | (buffer.get(position + 1) & 0x3F);
+        position += 2;
+      } else if (b < 0xF0) {
+        codePoint =
+            ((b & 0x0F) << 12) | ((buffer.get(position + 1) & 0x3F) << 6) | (buffer.get(position + 2) & 0x3F);
+        position += 3;
+      } else {
+        codePoint = ((b & 0x07) << 18) | ((buffer.get(position + 1) & 0x3F) << 12)
+            | ((buffer.get(position + 2) & 0x3F) << 6) | (buffer.get(position + 3) & 0x3F);
+        position += 4;
+      }
+      int expected = key.codePointAt(i);
+      if (codePoint != expected) {
+        return false;
+      }
+      i += Character.charCount(expected);
+    }
+    return i == key.length();
+  }
+
+  private static int hash(String key) {
+    int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Writes the given messages to a catalog file.
+   */
+  static void write(Map<String, String> messages, Path file) throws IOException {
+    int slots = Integer.highestOneBit(Math.max(1, messages.size() * 2 - 1)) << 1;
+    ByteBuffer index = ByteBuffer.allocate(slots * SLOT_SIZE);
+    for (int i = 0; i < slots; i++) {
+      index.putInt(i * SLOT_SIZE + 4, -1);
+    }
+    ByteArrayOutputStream entries = new ByteArrayOutputStream();
+    int entriesStart = HEADER_SIZE + slots * SLOT_SIZE;
+    for (Map.Entry<String, String> entry : messages.entrySet()) {
+      int hash = hash(entry.getKey());
+      int slot = hash & (slots - 1);
+      while (index.getInt(slot * SLOT_SIZE + 4) >= 0) {
+        slot = (slot + 1) & (slots - 1);
+      }
+      index.putInt(slot * SLOT_SIZE, hash);
+      index.putInt(slot * SLOT_SIZE + 4, entriesStart + entries.size());
+      writeString(entries, entry.getKey());
+      writeString(entries, entry.getValue());
+    }
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    header.putInt(MAGIC).putInt(VERSION).putInt(messages.size()).putInt(slots);
+    try (OutputStream out = Files.newOutputStream(file)) {
+      out.write(header.array());
+      out.write(index.array());
+      entries.writeTo(out);
+    }
+  }
+
+  private static void writeString(ByteArrayOutputStream out, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeBytes(ByteBuffer.allocate(4).putInt(bytes.length).array());
+    out.writeBytes(bytes);
+  }
+
+  private static ByteBuffer emptyBuffer() {
+    ByteBuffer empty = ByteBuffer.allocate(HEADER_SIZE + SLOT_SIZE);
+    empty.putInt(MAGIC).putInt(VERSION).putInt(0).putInt(1).putInt(0).putInt(-1);
+    return empty;
+  }
+}
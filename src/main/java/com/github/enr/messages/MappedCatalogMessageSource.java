@@ -0,0 +1,166 @@
+package com.github.enr.messages;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.System.Logger;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Message source reading catalogs precompiled by {@link CatalogCompiler}, memory mapped from files named after the
+ * base name and the locale, ie {@code messages_it.mcat}.
+ *
+ * <p>
+ * Keys and values stay off heap until they are looked up. Each catalog already holds main and fallback messages with
+ * their parent chain; a locale without a catalog uses the closest one, ie {@code it_IT} uses {@code it}, each file
+ * being mapped once whatever the locales using it.
+ */
+public class MappedCatalogMessageSource extends MessageSourceBase {
+
+  private static final Logger LOG = System.getLogger(MethodHandles.lookup().lookupClass().getName());
+
+  private static final ResourceBundle.Control CANDIDATES =
+      ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_DEFAULT);
+
+  private final Path directory;
+  private final String baseName;
+  /** Catalogs by requested locale, up to {@value ResourceBundleMessageSource#MAX_TRACKED_LOCALES} of them. */
+  private final ConcurrentHashMap<Locale, MappedCatalog> catalogCache;
+  /** Catalogs by file, shared by the requested locales resolving to them. */
+  private final ConcurrentHashMap<Path, MappedCatalog> catalogFiles = new ConcurrentHashMap<>();
+  private final SharedLoads<Path, MappedCatalog> catalogLoads = new SharedLoads<>();
+  private final AtomicBoolean missingCatalogLogged = new AtomicBoolean();
+
+  private MappedCatalogMessageSource(Builder builder) {
+    super(builder.missingKeyStrategy, builder.errorHandler, builder.defaultLocale, false,
+        new MessageFormatCache(builder.formatCacheSize), builder.metrics);
+    this.directory = builder.directory;
+    this.baseName = builder.baseName;
+    this.catalogCache = new ConcurrentHashMap<>();
+    getCatalog(builder.defaultLocale);
+  }
+
+  public static class Builder {
+    private final Path directory;
+    private final String baseName;
+    private MissingKeyStrategy missingKeyStrategy = MissingKeyStrategy.defaultStrategy();
+    private ErrorHandler errorHandler = ErrorHandler.defaultHandler();
+    private Locale defaultLocale = Locale.getDefault();
+    private int formatCacheSize = MessageFormatCache.DEFAULT_MAX_SIZE;
+    private MessageMetrics metrics = MessageMetrics.NOOP;
+
+    public Builder(Path directory, String baseName) {
+      if (directory == null || baseName == null) {
+        throw new IllegalArgumentException("Directory and base name must not be null.");
+      }
+      this.directory = directory;
+      this.baseName = baseName;
+    }
+
+    public Builder withMissingKeyStrategy(MissingKeyStrategy missingKeyStrategy) {
+      this.missingKeyStrategy = missingKeyStrategy;
+      return this;
+    }
+
+    public Builder withErrorHandler(ErrorHandler errorHandler) {
+      this.errorHandler = errorHandler;
+      return this;
+    }
+
+    public Builder withDefaultLocale(Locale defaultLocale) {
+      this.defaultLocale = defaultLocale;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of compiled message formats kept in memory.
+     *
+     * @param formatCacheSize The cache size, {@code 0} disables the cache.
+     * @return This builder.
+     */
+    public Builder withFormatCacheSize(int formatCacheSize) {
+      this.formatCacheSize = formatCacheSize;
+      return this;
+    }
+
+    public Builder withMetrics(MessageMetrics metrics) {
+      this.metrics = metrics != null ? metrics : MessageMetrics.NOOP;
+      return this;
+    }
+
+    public MappedCatalogMessageSource build() {
+      return new MappedCatalogMessageSource(this);
+    }
+  }
+
+  public static Builder forCatalog(Path directory, String baseName) {
+    return new Builder(directory, baseName);
+  }
+
+  @Override
+  protected String getMessageTemplate(String key, Context context) {
+    return getCatalog(context.getLocale()).get(key);
+  }
+
+  @Override
+  protected TemplateLookup templateLookup(Context context) {
+    MappedCatalog catalog = getCatalog(context.getLocale());
+    return catalog::get;
+  }
+
+  @Override
+  public Map<String, String> getAllMessagesKeyAndValue(Context context) {
+    return getCatalog(context.getLocale()).toMap();
+  }
+
+  private MappedCatalog getCatalog(Locale locale) {
+    MappedCatalog catalog = catalogCache.get(locale);
+    if (catalog != null) {
+      return catalog;
+    }
+    Path file = catalogFile(locale);
+    if (file == null) {
+      if (missingCatalogLogged.compareAndSet(false, true)) {
+        LOG.log(Logger.Level.WARNING, "Catalog not found for locale " + locale + ", other locales are not reported");
+      }
+      catalog = MappedCatalog.EMPTY;
+    } else {
+      // mapped holding no lock, concurrent callers for the same file wait for it
+      catalog = catalogLoads.load(file, catalogFiles, this::openCatalog);
+    }
+    if (catalogCache.size() < ResourceBundleMessageSource.MAX_TRACKED_LOCALES) {
+      MappedCatalog previous = catalogCache.putIfAbsent(locale, catalog);
+      if (previous != null) {
+        return previous;
+      }
+    }
+    return catalog;
+  }
+
+  /**
+   * Returns the catalog file of the closest locale, {@code null} if there is none.
+   */
+  private Path catalogFile(Locale locale) {
+    for (Locale candidate : CANDIDATES.getCandidateLocales(baseName, locale)) {
+      Path file = directory.resolve(MappedCatalog.fileName(baseName, candidate));
+      if (Files.isRegularFile(file)) {
+        return file;
+      }
+    }
+    return null;
+  }
+
+  private MappedCatalog openCatalog(Path file) {
+    try {
+      return MappedCatalog.open(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
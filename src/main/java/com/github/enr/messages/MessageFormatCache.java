@@ -0,0 +1,122 @@
+package com.github.enr.messages;
+
+import java.text.MessageFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of compiled templates keyed by template and locale.
+ *
+ * <p>
+ * {@code MessageFormat} is not thread-safe, so the cache keeps a compiled prototype for every entry and hands out
+ * clones: cloning skips the pattern parsing, which is the expensive part of building a format. Templates with plain
+ * placeholders only do not need a {@code MessageFormat} at all, see {@link #getTemplate(String, Locale)}: they share
+ * the number and date formats of their locale, kept for as many locales as templates.
+ */
+public class MessageFormatCache {
+
+  public static final int DEFAULT_MAX_SIZE = 512;
+
+  private final int maxSize;
+  private final ConcurrentHashMap<CacheKey, MessageTemplate> templates;
+  private final ConcurrentHashMap<Locale, LocaleFormats> localeFormats = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public MessageFormatCache(int maxSize) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("Max size must not be negative.");
+    }
+    this.maxSize = maxSize;
+    this.templates = new ConcurrentHashMap<>();
+  }
+
+  public MessageFormatCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Returns a format for the given template, owned by the caller.
+   *
+   * @param template The message template.
+   * @param locale The locale used by sub-formats.
+   * @return A {@code MessageFormat} instance that is not shared with other callers.
+   */
+  public MessageFormat get(String template, Locale locale) {
+    return getTemplate(template, locale).newMessageFormat();
+  }
+
+  /**
+   * Returns the compiled template, safe to share between threads.
+   */
+  MessageTemplate getTemplate(String template, Locale locale) {
+    if (maxSize == 0) {
+      misses.increment();
+      // not worth splitting into segments a template used only once
+      return MessageTemplate.formatOnly(template, locale);
+    }
+    CacheKey key = new CacheKey(template, locale);
+    MessageTemplate compiled = templates.get(key);
+    if (compiled != null) {
+      hits.increment();
+      return compiled;
+    }
+    misses.increment();
+    compiled = MessageTemplate.compile(template, locale, localeFormats(locale));
+    if (templates.size() >= maxSize) {
+      evictOne();
+    }
+    templates.putIfAbsent(key, compiled);
+    return compiled;
+  }
+
+  /**
+   * Returns the formats of the locale, shared by its templates unless as many locales as templates are already kept.
+   */
+  private LocaleFormats localeFormats(Locale locale) {
+    LocaleFormats formats = localeFormats.get(locale);
+    if (formats != null) {
+      return formats;
+    }
+    formats = new LocaleFormats(locale);
+    if (localeFormats.size() >= maxSize) {
+      return formats;
+    }
+    LocaleFormats previous = localeFormats.putIfAbsent(locale, formats);
+    return previous != null ? previous : formats;
+  }
+
+  private void evictOne() {
+    Iterator<CacheKey> it = templates.keySet().iterator();
+    if (it.hasNext()) {
+      it.next();
+      it.remove();
+    }
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  public int size() {
+    return templates.size();
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public void clear() {
+    templates.clear();
+    localeFormats.clear();
+  }
+
+  private record CacheKey(String template, Locale locale) {
+  }
+}
@@ -0,0 +1,37 @@
+package com.github.enr.messages;
+
+/**
+ * A message key with a dense int id, taken from a {@link MessageKeys} set, ie a constant of a class generated by
+ * {@link KeysGenerator}. Sources look it up by id, through an array per locale, instead of hashing the key.
+ */
+public final class MessageKey {
+  private final MessageKeys keys;
+  private final int id;
+  private final String key;
+
+  MessageKey(MessageKeys keys, int id, String key) {
+    this.keys = keys;
+    this.id = id;
+    this.key = key;
+  }
+
+  /**
+   * Returns the set this key belongs to, its id is an index into it.
+   */
+  public MessageKeys getKeys() {
+    return keys;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  @Override
+  public String toString() {
+    return key;
+  }
+}
@@ -0,0 +1,54 @@
+package com.github.enr.messages;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable set of message keys numbered from {@code 0}, in the given order.
+ *
+ * <p>
+ * Keys are compared by identity: sources cache the templates of each set, so a set should be created once, ie as a
+ * constant.
+ */
+public final class MessageKeys {
+  private final MessageKey[] keys;
+
+  private MessageKeys(String[] keys) {
+    this.keys = new MessageKey[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      this.keys[i] = new MessageKey(this, i, keys[i]);
+    }
+  }
+
+  /**
+   * Returns the set of the given keys, the first one with id {@code 0}.
+   *
+   * @param keys The keys, unique.
+   * @return The key set.
+   */
+  public static MessageKeys of(String... keys) {
+    if (keys == null) {
+      throw new IllegalArgumentException("Keys must not be null.");
+    }
+    Set<String> unique = new HashSet<>();
+    for (String key : keys) {
+      if (key == null || !unique.add(key)) {
+        throw new IllegalArgumentException("Keys must be unique and not null: " + key);
+      }
+    }
+    return new MessageKeys(keys.clone());
+  }
+
+  public MessageKey get(int id) {
+    return keys[id];
+  }
+
+  public int size() {
+    return keys.length;
+  }
+
+  public List<MessageKey> getKeys() {
+    return List.of(keys);
+  }
+}
@@ -0,0 +1,102 @@
+package com.github.enr.messages;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Loads messages from a store other than the classpath, ie a directory tree or a key/value store.
+ *
+ * <p>
+ * A loader returns the messages of exactly one locale: {@link ResourceBundleMessageSource} loads the candidate locales
+ * ({@code it_IT}, {@code it}, root) and chains them the same way {@code ResourceBundle} does, so caching and fallback
+ * work as for classpath bundles.
+ */
+public interface MessageLoader {
+
+  /**
+   * Loads all the messages of a resource for a single locale.
+   *
+   * @param resource The resource base name, as given to the message source.
+   * @param locale The locale, {@link Locale#ROOT} for the base messages.
+   * @return The messages by key, {@code null} if the store has none for the locale.
+   * @throws IOException If the store cannot be read.
+   */
+  Map<String, String> load(String resource, Locale locale) throws IOException;
+
+  /**
+   * Loads the messages of a locale without blocking the caller. The default implementation runs
+   * {@link #load(String, Locale)} on the given executor: stores with a non-blocking client should override it.
+   *
+   * @param resource The resource base name.
+   * @param locale The locale.
+   * @param executor The executor of the message source for asynchronous loads.
+   * @return The future messages, completed with {@code null} if the store has none for the locale.
+   */
+  default CompletableFuture<Map<String, String>> loadAsync(String resource, Locale locale, Executor executor) {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return load(resource, locale);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }, executor);
+  }
+
+  /**
+   * Returns the locales the store has messages for, used to discover the locales to warm up.
+   *
+   * @param resource The resource base name.
+   * @return The locales, empty if unknown.
+   */
+  default Set<Locale> locales(String resource) {
+    return Set.of();
+  }
+
+  /**
+   * Returns a loader reading UTF-8 properties files from a directory tree, laid out as on the classpath: resource
+   * {@code messages.labels} and locale {@code it} are read from {@code messages/labels_it.properties}. Resources
+   * resolving outside the directory throw {@link IllegalArgumentException}.
+   *
+   * @param directory The root directory.
+   * @return The loader.
+   */
+  static MessageLoader directory(Path directory) {
+    return new DirectoryMessageLoader(directory);
+  }
+
+  /**
+   * Returns a loader serving messages held in memory, ie parsed from a single multi-locale file. The same messages are
+   * returned for every resource.
+   *
+   * @param messages The messages by locale and key.
+   * @return The loader.
+   */
+  static MessageLoader of(Map<Locale, Map<String, String>> messages) {
+    if (messages == null) {
+      throw new IllegalArgumentException("Messages must not be null.");
+    }
+    Map<Locale, Map<String, String>> copy = Map.copyOf(messages);
+    return new MessageLoader() {
+      @Override
+      public Map<String, String> load(String resource, Locale locale) {
+        return copy.get(locale);
+      }
+
+      @Override
+      public CompletableFuture<Map<String, String>> loadAsync(String resource, Locale locale, Executor executor) {
+        return CompletableFuture.completedFuture(copy.get(locale));
+      }
+
+      @Override
+      public Set<Locale> locales(String resource) {
+        return copy.keySet();
+      }
+    };
+  }
+}
@@ -0,0 +1,65 @@
+package com.github.enr.messages;
+
+import java.util.Locale;
+
+/**
+ * Instrumentation of a message source. Every method has a no-op default, so implementations can pick the events they
+ * are interested in. The locale is the one of the looked up context: bundle hits of a fallback to the default locale
+ * are reported for the default locale.
+ *
+ * <p>
+ * Methods are called on the lookup path: implementations must be thread-safe and cheap.
+ */
+public interface MessageMetrics {
+
+  /**
+   * Metrics doing nothing, the default for every message source.
+   */
+  MessageMetrics NOOP = new MessageMetrics() {};
+
+  /**
+   * A message was requested.
+   */
+  default void lookup(Locale locale) {
+  }
+
+  /**
+   * The template was found in the main bundle.
+   */
+  default void mainBundleHit(Locale locale) {
+  }
+
+  /**
+   * The template was found in the fallback bundle.
+   */
+  default void fallbackBundleHit(Locale locale) {
+  }
+
+  /**
+   * The template was not found for the locale and is looked up for the default locale, counted whether or not the
+   * default locale has it.
+   */
+  default void defaultLocaleFallback(Locale locale) {
+  }
+
+  /**
+   * The template was not found and the {@link MissingKeyStrategy} is called.
+   */
+  default void missingKey(Locale locale, String key) {
+  }
+
+  /**
+   * An error occurred and the {@link ErrorHandler} is called.
+   */
+  default void error(Locale locale, String key, Throwable throwable) {
+  }
+
+  /**
+   * A template was formatted with its arguments.
+   *
+   * @param locale The locale.
+   * @param nanos The time spent formatting, in nanoseconds.
+   */
+  default void formatted(Locale locale, long nanos) {
+  }
+}
@@ -0,0 +1,29 @@
+package com.github.enr.messages;
+
+/**
+ * A message key with its arguments, used to resolve many messages in a single call.
+ */
+public class MessageRequest {
+  private final String key;
+  private final Object[] args;
+
+  public MessageRequest(String key, Object... args) {
+    if (key == null) {
+      throw new IllegalArgumentException("Key must not be null.");
+    }
+    this.key = key;
+    this.args = args;
+  }
+
+  public static MessageRequest of(String key, Object... args) {
+    return new MessageRequest(key, args);
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  public Object[] getArgs() {
+    return args;
+  }
+}
@@ -1,6 +1,11 @@
 package com.github.enr.messages;
 
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 public interface MessageSource {
   String msg(String key, Context context, Object... args);
@@ -8,4 +13,108 @@ public interface MessageSource {
   String msg(String key, Object... args);
 
   Map<String, String> getAllMessagesKeyAndValue(Context context);
+
+  /**
+   * Returns the messages whose key starts with the given prefix, ie every {@code checkout.} message.
+   *
+   * @param context The context containing the locale.
+   * @param keyPrefix The key prefix, an empty prefix matches every key.
+   * @return A map with the matching keys, sorted, and their messages.
+   */
+  default Map<String, String> getAllMessagesKeyAndValue(Context context, String keyPrefix) {
+    if (keyPrefix == null) {
+      throw new IllegalArgumentException("Key prefix must not be null.");
+    }
+    Map<String, String> messages = new TreeMap<>();
+    getAllMessagesKeyAndValue(context).forEach((key, value) -> {
+      if (key.startsWith(keyPrefix)) {
+        messages.put(key, value);
+      }
+    });
+    return messages;
+  }
+
+  /**
+   * Returns the messages whose key starts with the given prefix serialized to UTF-8 JSON.
+   *
+   * @param context The context containing the locale.
+   * @param keyPrefix The key prefix, an empty prefix exports every message.
+   * @return The serialized messages.
+   */
+  default JsonCatalog getJsonCatalog(Context context, String keyPrefix) {
+    return JsonCatalog.of(getAllMessagesKeyAndValue(context, keyPrefix));
+  }
+
+  /**
+   * Resolves a message by the id of its key, ie a constant generated by {@link KeysGenerator}.
+   *
+   * @param key The required key.
+   * @param context The context containing the locale.
+   * @param args The message arguments.
+   * @return The message.
+   */
+  default String msgFor(MessageKey key, Context context, Object... args) {
+    if (key == null) {
+      throw new IllegalArgumentException("Key must not be null.");
+    }
+    return msg(key.getKey(), context, args);
+  }
+
+  /**
+   * Writes a message to the given output instead of returning it. If an error occurs while formatting, the output may
+   * already hold part of the message.
+   *
+   * @param out The output.
+   * @param key The required key.
+   * @param context The context containing the locale.
+   * @param args The message arguments.
+   * @throws IOException If writing to the output fails.
+   */
+  default void msgTo(Appendable out, String key, Context context, Object... args) throws IOException {
+    out.append(msg(key, context, args));
+  }
+
+  /**
+   * Appends a message to the given builder instead of returning it.
+   *
+   * @param out The builder.
+   * @param key The required key.
+   * @param context The context containing the locale.
+   * @param args The message arguments.
+   * @return The given builder.
+   */
+  default StringBuilder msgTo(StringBuilder out, String key, Context context, Object... args) {
+    return out.append(msg(key, context, args));
+  }
+
+  /**
+   * Resolves many messages without arguments for the same context.
+   *
+   * @param keys The required keys.
+   * @param context The context containing the locale.
+   * @return A map from each key to its message, in the iteration order of the given keys.
+   */
+  default Map<String, String> msgs(Collection<String> keys, Context context) {
+    Map<String, String> messages = new LinkedHashMap<>();
+    for (String key : keys) {
+      messages.put(key, msg(key, context));
+    }
+    return messages;
+  }
+
+  /**
+   * Resolves many messages with their arguments for the same context.
+   *
+   * @param requests The keys with their arguments.
+   * @param context The context containing the locale.
+   * @return The messages, in the same order of the requests.
+   */
+  default String[] msgsWithArgs(List<MessageRequest> requests, Context context) {
+    String[] messages = new String[requests.size()];
+    int i = 0;
+    for (MessageRequest request : requests) {
+      messages[i++] = msg(request.getKey(), context, request.getArgs());
+    }
+    return messages;
+  }
 }
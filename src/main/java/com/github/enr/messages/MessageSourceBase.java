@@ -1,25 +1,58 @@
 package com.github.enr.messages;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.System.Logger;
 import java.lang.invoke.MethodHandles;
-import java.text.MessageFormat;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 public abstract class MessageSourceBase implements MessageSource {
 
   private static final Logger LOG = System.getLogger(MethodHandles.lookup().lookupClass().getName());
 
+  private static final Object[] NO_ARGS = new Object[0];
+
   private final MissingKeyStrategy missingKeyStrategy;
   private final ErrorHandler errorHandler;
   private final Context defaultContext;
   private final boolean useDefaultLocaleFallback;
+  private final MessageFormatCache formatCache;
+  private final MessageMetrics metrics;
+  /** Whether metrics are enabled, so that formatting is not timed for nothing. */
+  private final boolean instrumented;
+  /** Rendered messages, {@code null} if not cached. */
+  private final RenderedMessageCache resultCache;
 
   protected MessageSourceBase(MissingKeyStrategy missingKeyStrategy, ErrorHandler errorHandler, Locale defaultLocale,
-      boolean useDefaultLocaleFallback) {
+      boolean useDefaultLocaleFallback, MessageFormatCache formatCache, MessageMetrics metrics,
+      RenderedMessageCache resultCache) {
     this.missingKeyStrategy = missingKeyStrategy != null ? missingKeyStrategy : MissingKeyStrategy.defaultStrategy();
     this.errorHandler = errorHandler != null ? errorHandler : ErrorHandler.defaultHandler();
-    this.defaultContext = new Context(defaultLocale);
+    this.defaultContext = Context.of(defaultLocale);
     this.useDefaultLocaleFallback = useDefaultLocaleFallback;
+    this.formatCache = formatCache != null ? formatCache : new MessageFormatCache();
+    this.metrics = metrics != null ? metrics : MessageMetrics.NOOP;
+    this.instrumented = this.metrics != MessageMetrics.NOOP;
+    this.resultCache = resultCache;
+  }
+
+  protected MessageSourceBase(MissingKeyStrategy missingKeyStrategy, ErrorHandler errorHandler, Locale defaultLocale,
+      boolean useDefaultLocaleFallback, MessageFormatCache formatCache, MessageMetrics metrics) {
+    this(missingKeyStrategy, errorHandler, defaultLocale, useDefaultLocaleFallback, formatCache, metrics, null);
+  }
+
+  protected MessageSourceBase(MissingKeyStrategy missingKeyStrategy, ErrorHandler errorHandler, Locale defaultLocale,
+      boolean useDefaultLocaleFallback, MessageFormatCache formatCache) {
+    this(missingKeyStrategy, errorHandler, defaultLocale, useDefaultLocaleFallback, formatCache, null);
+  }
+
+  protected MessageSourceBase(MissingKeyStrategy missingKeyStrategy, ErrorHandler errorHandler, Locale defaultLocale,
+      boolean useDefaultLocaleFallback) {
+    this(missingKeyStrategy, errorHandler, defaultLocale, useDefaultLocaleFallback, null);
   }
 
   protected MessageSourceBase(MissingKeyStrategy missingKeyStrategy, ErrorHandler errorHandler, Locale defaultLocale) {
@@ -28,38 +61,319 @@ public abstract class MessageSourceBase implements MessageSource {
 
   protected abstract String getMessageTemplate(String key, Context context) throws Exception;
 
+  /**
+   * Lookup of message templates bound to a single context.
+   */
+  @FunctionalInterface
+  protected interface TemplateLookup {
+    String getMessageTemplate(String key) throws Exception;
+  }
+
+  /**
+   * Returns a lookup of templates for the given context, used to resolve many keys at once. Subclasses should override
+   * it to resolve their per-locale data once instead of on every key.
+   *
+   * @param context The context containing the locale.
+   * @return The template lookup for the context.
+   */
+  protected TemplateLookup templateLookup(Context context) {
+    return key -> getMessageTemplate(key, context);
+  }
+
   @Override
   public String msg(String key, Context context, Object... args) {
     if (key == null || context == null) {
       throw new IllegalArgumentException("Key and Context must not be null.");
     }
 
+    // checked once per call so that, with debug disabled, no log arguments array gets allocated
+    boolean debug = LOG.isLoggable(Logger.Level.DEBUG);
+    metrics.lookup(context.getLocale());
+    RenderedMessageCache.Key cacheKey = resultKey(key, context, args);
+    RenderedMessageCache.Generation generation = null;
+    if (cacheKey != null) {
+      generation = resultCache.generation();
+      String cached = resultCache.get(generation, cacheKey);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    try {
+      String template = resolveTemplate(key, context, debug);
+      return render(key, template, context, args, debug, generation, cacheKey);
+    } catch (Exception e) {
+      return handleError(key, context, e);
+    }
+  }
+
+  @Override
+  public String msgFor(MessageKey key, Context context, Object... args) {
+    if (key == null || context == null) {
+      throw new IllegalArgumentException("Key and Context must not be null.");
+    }
+    boolean debug = LOG.isLoggable(Logger.Level.DEBUG);
+    metrics.lookup(context.getLocale());
+    RenderedMessageCache.Key cacheKey = resultKey(key.getKey(), context, args);
+    RenderedMessageCache.Generation generation = null;
+    if (cacheKey != null) {
+      generation = resultCache.generation();
+      String cached = resultCache.get(generation, cacheKey);
+      if (cached != null) {
+        return cached;
+      }
+    }
     try {
-      String template = getMessageTemplate(key, context);
+      String template = resolveMessageTemplate(key, context);
+      return render(key.getKey(), template, context, args, debug, generation, cacheKey);
+    } catch (Exception e) {
+      return handleError(key.getKey(), context, e);
+    }
+  }
+
+  @Override
+  public void msgTo(Appendable out, String key, Context context, Object... args) throws IOException {
+    if (out == null || key == null || context == null) {
+      throw new IllegalArgumentException("Output, Key and Context must not be null.");
+    }
+    boolean debug = LOG.isLoggable(Logger.Level.DEBUG);
+    metrics.lookup(context.getLocale());
+    String template;
+    try {
+      template = resolveTemplate(key, context, debug);
+    } catch (Exception e) {
+      out.append(handleError(key, context, e));
+      return;
+    }
+    if (template == null) {
+      out.append(handleMissingKey(key, context));
+      return;
+    }
+    if (args == null) {
+      out.append(template);
+      return;
+    }
+    int start = out instanceof StringBuilder sb ? sb.length() : -1;
+    long started = instrumented ? System.nanoTime() : 0L;
+    try {
+      formatCache.getTemplate(template, context.getLocale()).formatTo(out, args);
+    } catch (RuntimeException e) {
+      if (start >= 0) {
+        // drop the partial message
+        ((StringBuilder) out).setLength(start);
+      }
+      out.append(handleError(key, context, e));
+      return;
+    }
+    if (instrumented) {
+      metrics.formatted(context.getLocale(), System.nanoTime() - started);
+    }
+  }
+
+  @Override
+  public StringBuilder msgTo(StringBuilder out, String key, Context context, Object... args) {
+    try {
+      msgTo((Appendable) out, key, context, args);
+    } catch (IOException e) {
+      // StringBuilder does not throw
+      throw new UncheckedIOException(e);
+    }
+    return out;
+  }
+
+  private String resolveTemplate(String key, Context context, boolean debug) throws Exception {
+    String template = resolveMessageTemplate(key, context);
+    if (debug) {
       LOG.log(Logger.Level.DEBUG, "template = {0}", template);
-      if (template == null) {
-        // Fallback to default locale if flag is enabled
-        if (useDefaultLocaleFallback && !context.getLocale().equals(defaultContext.getLocale())) {
-          LOG.log(Logger.Level.DEBUG,
-              "Message key ''{0}'' not found in locale ''{1}'', falling back to default locale ''{2}''", key,
-              context.getLocale(), defaultContext.getLocale());
-          template = getMessageTemplate(key, defaultContext);
-        }
+    }
+    return template;
+  }
+
+  /**
+   * Looks up the template for a key, falling back to the default locale if enabled. Subclasses resolving the fallback
+   * themselves, ie to cache the resolved templates, override it together with
+   * {@link #resolvingTemplateLookup(Context)}.
+   *
+   * @param key The message key.
+   * @param context The context containing the locale.
+   * @return The template, {@code null} if not found.
+   * @throws Exception If the lookup fails.
+   */
+  protected String resolveMessageTemplate(String key, Context context) throws Exception {
+    String template = getMessageTemplate(key, context);
+    if (template == null && isDefaultLocaleFallback(context)) {
+      if (LOG.isLoggable(Logger.Level.DEBUG)) {
+        LOG.log(Logger.Level.DEBUG,
+            "Message key ''{0}'' not found in locale ''{1}'', falling back to default locale ''{2}''", key,
+            context.getLocale(), defaultContext.getLocale());
       }
+      metrics.defaultLocaleFallback(context.getLocale());
+      template = getMessageTemplate(key, defaultContext);
+    }
+    return template;
+  }
+
+  /**
+   * Looks up the template of a key with an id, falling back to the default locale if enabled. Subclasses override it
+   * to look templates up by id; by default the key is looked up as a string.
+   *
+   * @param key The message key.
+   * @param context The context containing the locale.
+   * @return The template, {@code null} if not found.
+   * @throws Exception If the lookup fails.
+   */
+  protected String resolveMessageTemplate(MessageKey key, Context context) throws Exception {
+    return resolveMessageTemplate(key.getKey(), context);
+  }
+
+  /**
+   * Returns a lookup of templates for the given context falling back to the default locale if enabled, the batch
+   * counterpart of {@link #resolveMessageTemplate(String, Context)}.
+   *
+   * @param context The context containing the locale.
+   * @return The template lookup for the context.
+   */
+  protected TemplateLookup resolvingTemplateLookup(Context context) {
+    TemplateLookup lookup = templateLookup(context);
+    if (!isDefaultLocaleFallback(context)) {
+      return lookup;
+    }
+    TemplateLookup defaultLookup = templateLookup(defaultContext);
+    Locale locale = context.getLocale();
+    return key -> {
+      String template = lookup.getMessageTemplate(key);
       if (template == null) {
-        return missingKeyStrategy.handleMissingKey(key);
+        metrics.defaultLocaleFallback(locale);
+        template = defaultLookup.getMessageTemplate(key);
       }
-      LOG.log(Logger.Level.DEBUG, "resolve msg from template {0}", template);
-      if (args == null) {
-        return template;
+      return template;
+    };
+  }
+
+  /**
+   * Returns {@code true} if templates missing for the context locale are looked up for the default locale.
+   */
+  protected boolean isDefaultLocaleFallback(Context context) {
+    return useDefaultLocaleFallback && context != defaultContext
+        && !context.getLocale().equals(defaultContext.getLocale());
+  }
+
+  @Override
+  public Map<String, String> msgs(Collection<String> keys, Context context) {
+    if (keys == null || context == null) {
+      throw new IllegalArgumentException("Keys and Context must not be null.");
+    }
+    boolean debug = LOG.isLoggable(Logger.Level.DEBUG);
+    TemplateLookup lookup = safeTemplateLookup(context);
+    Map<String, String> messages = new LinkedHashMap<>((int) (keys.size() / 0.75f) + 1);
+    for (String key : keys) {
+      messages.put(key, resolve(key, NO_ARGS, context, lookup, debug));
+    }
+    return messages;
+  }
+
+  @Override
+  public String[] msgsWithArgs(List<MessageRequest> requests, Context context) {
+    if (requests == null || context == null) {
+      throw new IllegalArgumentException("Requests and Context must not be null.");
+    }
+    boolean debug = LOG.isLoggable(Logger.Level.DEBUG);
+    TemplateLookup lookup = safeTemplateLookup(context);
+    String[] messages = new String[requests.size()];
+    int i = 0;
+    for (MessageRequest request : requests) {
+      messages[i++] = resolve(request.getKey(), request.getArgs(), context, lookup, debug);
+    }
+    return messages;
+  }
+
+  /**
+   * Returns the resolving lookup of the context or, if creating it fails, ie because its bundles cannot be loaded, a
+   * lookup failing on every key, so that each one goes through the error handler as it does with {@code msg}.
+   */
+  private TemplateLookup safeTemplateLookup(Context context) {
+    try {
+      return resolvingTemplateLookup(context);
+    } catch (RuntimeException e) {
+      return key -> {
+        throw e;
+      };
+    }
+  }
+
+  private String resolve(String key, Object[] args, Context context, TemplateLookup lookup, boolean debug) {
+    if (key == null) {
+      throw new IllegalArgumentException("Key and Context must not be null.");
+    }
+    metrics.lookup(context.getLocale());
+    RenderedMessageCache.Key cacheKey = resultKey(key, context, args);
+    RenderedMessageCache.Generation generation = null;
+    if (cacheKey != null) {
+      generation = resultCache.generation();
+      String cached = resultCache.get(generation, cacheKey);
+      if (cached != null) {
+        return cached;
       }
-      MessageFormat mf = new MessageFormat(template, context.getLocale());
-      return mf.format(args);
+    }
+    try {
+      String template = lookup.getMessageTemplate(key);
+      return render(key, template, context, args, debug, generation, cacheKey);
     } catch (Exception e) {
-      return errorHandler.handleError(key, e);
+      return handleError(key, context, e);
     }
   }
 
+  /**
+   * Returns the key of the rendered message in the result cache, {@code null} if it must not be cached.
+   */
+  private RenderedMessageCache.Key resultKey(String key, Context context, Object[] args) {
+    if (resultCache == null || args == null || !RenderedMessageCache.isCacheable(args)) {
+      return null;
+    }
+    return new RenderedMessageCache.Key(this, context.getLocale(), key, args);
+  }
+
+  /**
+   * Renders the message and adds it to the given generation of the result cache, unless the key is missing: the
+   * generation is taken before looking the template up, so that messages from bundles already reloaded get dropped.
+   */
+  private String render(String key, String template, Context context, Object[] args, boolean debug,
+      RenderedMessageCache.Generation generation, RenderedMessageCache.Key cacheKey) {
+    String message = render(key, template, context, args, debug);
+    if (cacheKey != null && template != null) {
+      resultCache.put(generation, cacheKey, message);
+    }
+    return message;
+  }
+
+  private String render(String key, String template, Context context, Object[] args, boolean debug) {
+    if (template == null) {
+      return handleMissingKey(key, context);
+    }
+    if (debug) {
+      LOG.log(Logger.Level.DEBUG, "resolve msg from template {0}", template);
+    }
+    if (args == null) {
+      return template;
+    }
+    if (!instrumented) {
+      return formatCache.getTemplate(template, context.getLocale()).format(args);
+    }
+    long started = System.nanoTime();
+    String message = formatCache.getTemplate(template, context.getLocale()).format(args);
+    metrics.formatted(context.getLocale(), System.nanoTime() - started);
+    return message;
+  }
+
+  private String handleMissingKey(String key, Context context) {
+    metrics.missingKey(context.getLocale(), key);
+    return missingKeyStrategy.handleMissingKey(key);
+  }
+
+  private String handleError(String key, Context context, Exception e) {
+    metrics.error(context.getLocale(), key, e);
+    return errorHandler.handleError(key, e);
+  }
+
   @Override
   public String msg(String key, Object... args) {
     return msg(key, defaultContext, args);
@@ -68,4 +382,40 @@ public abstract class MessageSourceBase implements MessageSource {
   public boolean isUseDefaultLocaleFallback() {
     return useDefaultLocaleFallback;
   }
+
+  protected Context getDefaultContext() {
+    return defaultContext;
+  }
+
+  public MessageFormatCache getFormatCache() {
+    return formatCache;
+  }
+
+  public MessageMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Returns the cache of rendered messages, {@code null} if not enabled.
+   */
+  public RenderedMessageCache getResultCache() {
+    return resultCache;
+  }
+
+  /**
+   * Drops the rendered messages, to be called by subclasses once their templates have been reloaded.
+   */
+  protected void clearResultCache() {
+    if (resultCache != null) {
+      resultCache.clear();
+    }
+  }
+
+  /**
+   * Returns {@code true} if metrics other than the no-op ones are set, so that subclasses can skip work done only to
+   * report them.
+   */
+  protected boolean isInstrumented() {
+    return instrumented;
+  }
 }
@@ -0,0 +1,181 @@
+package com.github.enr.messages;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.AttributedCharacterIterator;
+import java.text.Format;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A message template compiled once into literal segments and argument slots.
+ *
+ * <p>
+ * Templates with plain {@code {0}} placeholders only are rendered appending segments and arguments to a presized
+ * {@code StringBuilder}. Templates using {@code number}, {@code date}, {@code time} or {@code choice} sub-formats are
+ * rendered by {@link MessageFormat}. Parsing is done by {@code MessageFormat} itself, so quoting rules and output are
+ * the same.
+ *
+ * <p>
+ * Formats are not thread-safe, so they are pooled and reused by one thread at a time: message formats per template,
+ * number and date formats of plain placeholders per locale.
+ */
+final class MessageTemplate {
+
+  private static final String ARGUMENT_MARKER = "0";
+
+  private final MessageFormat prototype;
+  private final FormatPool<MessageFormat> formats;
+  private final LocaleFormats localeFormats;
+  /** Literal segments, one more than the arguments: literal, argument, literal, ... literal. */
+  private final String[] literals;
+  private final int[] argumentIndexes;
+  private final int literalsLength;
+  private final boolean simple;
+
+  private MessageTemplate(MessageFormat prototype, LocaleFormats localeFormats, String[] literals,
+      int[] argumentIndexes, boolean simple) {
+    this.prototype = prototype;
+    this.formats = simple ? null : new FormatPool<>(this::newMessageFormat);
+    this.localeFormats = simple ? localeFormats : null;
+    this.literals = literals;
+    this.argumentIndexes = argumentIndexes;
+    this.simple = simple;
+    int length = 0;
+    for (String literal : literals) {
+      length += literal.length();
+    }
+    this.literalsLength = length;
+  }
+
+  static MessageTemplate compile(String template, Locale locale) {
+    return compile(template, locale, new LocaleFormats(locale));
+  }
+
+  /**
+   * Compiles a template whose plain placeholders are rendered with the given formats of the locale.
+   */
+  static MessageTemplate compile(String template, Locale locale, LocaleFormats localeFormats) {
+    MessageFormat format = new MessageFormat(template, locale);
+    for (Format subFormat : format.getFormats()) {
+      if (subFormat != null) {
+        return new MessageTemplate(format, null, new String[0], null, false);
+      }
+    }
+    Object[] markers = new Object[format.getFormatsByArgumentIndex().length];
+    for (int i = 0; i < markers.length; i++) {
+      markers[i] = ARGUMENT_MARKER;
+    }
+    List<String> literals = new ArrayList<>();
+    List<Integer> argumentIndexes = new ArrayList<>();
+    StringBuilder literal = new StringBuilder();
+    AttributedCharacterIterator it = format.formatToCharacterIterator(markers);
+    while (it.getIndex() < it.getEndIndex()) {
+      int limit = it.getRunLimit(MessageFormat.Field.ARGUMENT);
+      Object argument = it.getAttribute(MessageFormat.Field.ARGUMENT);
+      if (argument == null) {
+        for (char c = it.current(); it.getIndex() < limit; c = it.next()) {
+          literal.append(c);
+        }
+      } else {
+        // adjacent placeholders of the same argument, ie {0}{0}, make a single run
+        int count = (limit - it.getIndex()) / ARGUMENT_MARKER.length();
+        for (int i = 0; i < count; i++) {
+          literals.add(literal.toString());
+          literal.setLength(0);
+          argumentIndexes.add((Integer) argument);
+        }
+      }
+      it.setIndex(limit);
+    }
+    literals.add(literal.toString());
+    return new MessageTemplate(format, localeFormats, literals.toArray(new String[0]),
+        argumentIndexes.stream().mapToInt(Integer::intValue).toArray(), true);
+  }
+
+  /**
+   * Returns a template always rendered by {@code MessageFormat}.
+   */
+  static MessageTemplate formatOnly(String template, Locale locale) {
+    return new MessageTemplate(new MessageFormat(template, locale), null, new String[0], null, false);
+  }
+
+  boolean isSimple() {
+    return simple;
+  }
+
+  /**
+   * Returns a {@code MessageFormat} for this template, owned by the caller.
+   */
+  MessageFormat newMessageFormat() {
+    return (MessageFormat) prototype.clone();
+  }
+
+  String format(Object[] args) {
+    if (!simple) {
+      MessageFormat format = formats.borrow();
+      try {
+        return format.format(args);
+      } finally {
+        formats.release(format);
+      }
+    }
+    if (argumentIndexes.length == 0) {
+      return literals[0];
+    }
+    StringBuilder sb = new StringBuilder(literalsLength + 16 * argumentIndexes.length);
+    try {
+      appendTo(sb, args);
+    } catch (IOException e) {
+      // StringBuilder does not throw
+      throw new UncheckedIOException(e);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Writes the formatted message to the given output. Templates with plain placeholders write their segments and
+   * arguments directly, without building the whole message first.
+   */
+  void formatTo(Appendable out, Object[] args) throws IOException {
+    if (!simple) {
+      out.append(format(args));
+      return;
+    }
+    appendTo(out, args);
+  }
+
+  private void appendTo(Appendable out, Object[] args) throws IOException {
+    out.append(literals[0]);
+    for (int i = 0; i < argumentIndexes.length; i++) {
+      appendArgument(out, argumentIndexes[i], args);
+      out.append(literals[i + 1]);
+    }
+  }
+
+  /**
+   * Appends an argument the same way {@code MessageFormat} does for a placeholder without sub-format.
+   */
+  private void appendArgument(Appendable out, int index, Object[] args) throws IOException {
+    if (args == null || index >= args.length) {
+      out.append('{').append(Integer.toString(index)).append('}');
+      return;
+    }
+    Object arg = args[index];
+    if (arg == null) {
+      out.append("null");
+    } else if (arg instanceof String s) {
+      out.append(s);
+    } else if (arg instanceof Number) {
+      out.append(localeFormats.formatNumber(arg));
+    } else if (arg instanceof Date) {
+      out.append(localeFormats.formatDate(arg));
+    } else {
+      String value = arg.toString();
+      out.append(value != null ? value : "null");
+    }
+  }
+}
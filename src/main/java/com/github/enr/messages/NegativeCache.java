@@ -0,0 +1,51 @@
+package com.github.enr.messages;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe set of things known to be missing, ie bundles not found for a locale, so that looking for them
+ * again costs a single hash probe.
+ */
+class NegativeCache<K> {
+
+  private final int maxSize;
+  private final Set<K> entries = ConcurrentHashMap.newKeySet();
+  private final LongAdder hits = new LongAdder();
+
+  NegativeCache(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  boolean contains(K key) {
+    if (entries.contains(key)) {
+      hits.increment();
+      return true;
+    }
+    return false;
+  }
+
+  void add(K key) {
+    if (maxSize == 0) {
+      return;
+    }
+    if (entries.size() >= maxSize) {
+      Iterator<K> it = entries.iterator();
+      if (it.hasNext()) {
+        it.next();
+        it.remove();
+      }
+    }
+    entries.add(key);
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  long getHitCount() {
+    return hits.sum();
+  }
+}
@@ -0,0 +1,198 @@
+package com.github.enr.messages;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe cache of rendered messages keyed by source, locale, key and arguments, so that messages without
+ * arguments or with a few recurring ones are looked up and formatted once.
+ *
+ * <p>
+ * Only arguments that are immutable and cheap to hash are cached: {@code String}, boxed primitives,
+ * {@code BigInteger}, {@code BigDecimal}, enums and {@code null}. Messages with any other argument, ie a
+ * {@code Date}, are rendered every time. Missing keys and errors are never cached.
+ *
+ * <p>
+ * The cache is bounded both by number of messages and by their total length in chars; beyond either bound messages
+ * get evicted. It is cleared when the bundles of its source are reloaded. A cache shared by several sources keeps
+ * their messages apart, under common bounds, and is cleared when any of them is reloaded.
+ */
+public class RenderedMessageCache {
+
+  public static final int DEFAULT_MAX_SIZE = 1024;
+
+  private final int maxSize;
+  private final long maxChars;
+  /** Replaced as a whole on clear, so that messages rendered before cannot be added back. */
+  private volatile Generation generation = new Generation();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Creates a cache.
+   *
+   * @param maxSize The maximum number of messages.
+   * @param maxChars The maximum total length of the messages.
+   */
+  public RenderedMessageCache(int maxSize, long maxChars) {
+    if (maxSize < 1 || maxChars < 1) {
+      throw new IllegalArgumentException("Max size and max chars must be positive.");
+    }
+    this.maxSize = maxSize;
+    this.maxChars = maxChars;
+  }
+
+  public RenderedMessageCache(int maxSize) {
+    this(maxSize, Long.MAX_VALUE);
+  }
+
+  public RenderedMessageCache() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Returns {@code true} if messages with the given arguments can be cached.
+   */
+  static boolean isCacheable(Object[] args) {
+    for (Object arg : args) {
+      if (!isCacheable(arg)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isCacheable(Object arg) {
+    return arg == null || arg instanceof String || arg instanceof Integer || arg instanceof Long
+        || arg instanceof Boolean || arg instanceof Enum || arg instanceof Character || arg instanceof Short
+        || arg instanceof Byte || arg instanceof Double || arg instanceof Float || arg instanceof BigInteger
+        || arg instanceof BigDecimal;
+  }
+
+  /**
+   * Returns the current generation, to look up a message and then to add it once rendered.
+   */
+  Generation generation() {
+    return generation;
+  }
+
+  String get(Generation current, Key key) {
+    String message = current.messages.get(key);
+    if (message != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return message;
+  }
+
+  void put(Generation current, Key key, String message) {
+    int chars = message.length();
+    if (chars > maxChars) {
+      return;
+    }
+    while (current.messages.size() >= maxSize || current.chars.get() + chars > maxChars) {
+      if (!current.evictOne()) {
+        break;
+      }
+    }
+    // the caller may change its arguments afterwards
+    Key copy = new Key(key.source, key.locale, key.key, key.args.clone(), key.hash);
+    if (current.messages.putIfAbsent(copy, message) == null) {
+      current.chars.addAndGet(chars);
+    }
+  }
+
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  public int size() {
+    return generation.messages.size();
+  }
+
+  /**
+   * Returns the total length of the cached messages.
+   */
+  public long getChars() {
+    return generation.chars.get();
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public long getMaxChars() {
+    return maxChars;
+  }
+
+  public void clear() {
+    generation = new Generation();
+  }
+
+  static final class Generation {
+    private final ConcurrentHashMap<Key, String> messages = new ConcurrentHashMap<>();
+    private final AtomicLong chars = new AtomicLong();
+
+    private boolean evictOne() {
+      Iterator<Key> it = messages.keySet().iterator();
+      if (!it.hasNext()) {
+        return false;
+      }
+      String evicted = messages.remove(it.next());
+      if (evicted != null) {
+        chars.addAndGet(-evicted.length());
+      }
+      return true;
+    }
+  }
+
+  static final class Key {
+    /** The source rendering the message, compared by identity. */
+    private final Object source;
+    private final Locale locale;
+    private final String key;
+    private final Object[] args;
+    private final int hash;
+
+    Key(Object source, Locale locale, String key, Object[] args) {
+      this(source, locale, key, args, 31 * (31 * (31 * System.identityHashCode(source) + locale.hashCode())
+          + key.hashCode()) + Arrays.hashCode(args));
+    }
+
+    private Key(Object source, Locale locale, String key, Object[] args, int hash) {
+      this.source = source;
+      this.locale = locale;
+      this.key = key;
+      this.args = args;
+      this.hash = hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key other)) {
+        return false;
+      }
+      return hash == other.hash && source == other.source && key.equals(other.key) && locale.equals(other.locale)
+          && Arrays.equals(args, other.args);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
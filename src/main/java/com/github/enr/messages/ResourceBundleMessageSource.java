@@ -1,36 +1,244 @@
 package com.github.enr.messages;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.System.Logger;
 import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.MissingResourceException;
+import java.util.NavigableMap;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
-public class ResourceBundleMessageSource extends MessageSourceBase {
+public class ResourceBundleMessageSource extends MessageSourceBase implements AsyncMessageSource, AutoCloseable {
 
   private static final Logger LOG = System.getLogger(MethodHandles.lookup().lookupClass().getName());
 
+  private static final ResourceBundle.Control CANDIDATES =
+      ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_DEFAULT);
+
+  public static final int DEFAULT_MISSING_BUNDLE_CACHE_SIZE = 256;
+
+  /**
+   * Maximum number of JSON catalogs kept, by locale and key prefix.
+   */
+  public static final int MAX_JSON_CATALOGS = 256;
+
+  /**
+   * Maximum number of requested locales remembered by the caches of a message source: requested locales are
+   * arbitrary, beyond that they are resolved every time. The data they resolve to is shared and not bounded by this.
+   */
+  public static final int MAX_TRACKED_LOCALES = 256;
+
+  // rough per-entry overhead of the tables, see getCatalogMemory()
+  private static final int BUNDLE_ENTRY_BYTES = 40;
+  private static final int FLAT_ENTRY_BYTES = 16;
+  private static final int KEY_INDEX_ENTRY_BYTES = 56;
+
   private final String resource;
 
   private String fallbackResource;
 
   private ClassLoader classLoader;
 
-  private final ConcurrentHashMap<Locale, ResourceBundle> mainBundleCache;
-  private final ConcurrentHashMap<Locale, ResourceBundle> fallbackBundleCache;
+  /**
+   * Everything loaded from the bundles. Replaced as a whole on reload, so readers always see a consistent state.
+   */
+  private volatile Caches caches;
+
+  private final boolean flatTables;
+  private final boolean compactStorage;
+
+  private final int missingBundleCacheSize;
+  private final int missingKeyCacheSize;
+
+  private final ResourceBundle.Control reloadControl;
+  private final ScheduledExecutorService reloader;
+
+  private final CompletableFuture<Void> warmUp;
+
+  private final MessageLoader loader;
+  private final Executor loadExecutor;
 
   private ResourceBundleMessageSource(Builder builder) {
-    super(builder.missingKeyStrategy, builder.errorHandler, builder.defaultLocale);
+    super(builder.missingKeyStrategy, builder.errorHandler, builder.defaultLocale, builder.defaultLocaleFallback,
+        new MessageFormatCache(builder.formatCacheSize), builder.metrics, builder.resultCache);
     this.resource = builder.resource;
     this.fallbackResource = builder.fallbackResource;
     this.classLoader = builder.classLoader;
-    this.mainBundleCache = new ConcurrentHashMap<>();
-    this.fallbackBundleCache = new ConcurrentHashMap<>();
-    loadBundlesForLocale(builder.defaultLocale);
+    this.loader = builder.loader;
+    this.loadExecutor = builder.warmUpExecutor;
+    this.missingBundleCacheSize = builder.missingBundleCacheSize;
+    this.missingKeyCacheSize = builder.missingKeyCacheSize;
+    this.compactStorage = builder.compactStorage;
+    this.caches = newCaches();
+    this.flatTables = builder.flatTables || builder.reloadInterval != null || compactStorage;
+    // compact tables are built from bundles not kept by the JDK cache either
+    this.reloadControl = builder.reloadInterval != null || compactStorage ? new NoCacheControl() : null;
+    loadBundlesForLocale(caches, builder.defaultLocale);
+    if (compactStorage) {
+      flatTable(caches, builder.defaultLocale);
+    }
+    this.reloader = builder.reloadInterval != null ? startReloader(builder.reloadInterval) : null;
+    this.warmUp = startWarmUp(builder);
+    if (builder.warmUpAwait) {
+      warmUp.join();
+    }
+  }
+
+  private static final class Caches {
+    private final ConcurrentHashMap<Locale, ResourceBundle> mainBundleCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Locale, ResourceBundle> fallbackBundleCache = new ConcurrentHashMap<>();
+    /** Flat tables by requested locale, up to {@link #MAX_TRACKED_LOCALES} of them. */
+    private final ConcurrentHashMap<Locale, FlatTable> flatTableCache = new ConcurrentHashMap<>();
+    /** Flat tables by the bundles they are built from, shared by the requested locales resolving to them. */
+    private final ConcurrentHashMap<TableKey, FlatTable> sharedFlatTables = new ConcurrentHashMap<>();
+    // snapshots by requested locale, up to MAX_TRACKED_LOCALES of them, and by the bundles they are built from
+    private final ConcurrentHashMap<Locale, Map<String, String>> snapshotCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<TableKey, Map<String, String>> sharedSnapshots = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Locale, NavigableMap<String, String>> sortedSnapshotCache =
+        new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<TableKey, NavigableMap<String, String>> sharedSortedSnapshots =
+        new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<JsonCatalogKey, JsonCatalog> jsonCatalogCache = new ConcurrentHashMap<>();
+    /** Asynchronous loads, shared by concurrent requests of the same locale. */
+    private final ConcurrentHashMap<Locale, CompletableFuture<Void>> preloads = new ConcurrentHashMap<>();
+    // loads in progress: concurrent callers wait for them holding no lock
+    private final SharedLoads<Locale, ResourceBundle> mainBundleLoads = new SharedLoads<>();
+    private final SharedLoads<Locale, ResourceBundle> fallbackBundleLoads = new SharedLoads<>();
+    private final SharedLoads<TableKey, FlatTable> flatTableLoads = new SharedLoads<>();
+    private final NegativeCache<Locale> missingMainBundles;
+    private final NegativeCache<Locale> missingFallbackBundles;
+    private final ConcurrentHashMap<Locale, NegativeCache<String>> missingKeys = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Locale, ConcurrentHashMap<String, Resolution>> resolutions =
+        new ConcurrentHashMap<>();
+    /** Templates of key sets by id, see {@link #resolveMessageTemplate(MessageKey, Context)}. */
+    private final ConcurrentHashMap<MessageKeys, IdTables> idTables = new ConcurrentHashMap<>();
+    // the same per-locale data indexed by the slot of canonical contexts, filled on first access
+    private final AtomicReferenceArray<ResourceBundle> mainBundleSlots = new AtomicReferenceArray<>(Context.MAX_SLOTS);
+    private final AtomicReferenceArray<ResourceBundle> fallbackBundleSlots =
+        new AtomicReferenceArray<>(Context.MAX_SLOTS);
+    private final AtomicReferenceArray<FlatTable> flatTableSlots = new AtomicReferenceArray<>(Context.MAX_SLOTS);
+    private final AtomicReferenceArray<ConcurrentHashMap<String, Resolution>> resolutionSlots =
+        new AtomicReferenceArray<>(Context.MAX_SLOTS);
+    private final int missingKeyCacheSize;
+    // shared by the compact tables of every locale
+    private final KeyIndex keyIndex = new KeyIndex();
+    private final ConcurrentHashMap<String, String> valuePool = new ConcurrentHashMap<>();
+
+    private Caches(int missingBundleCacheSize, int missingKeyCacheSize) {
+      this.missingMainBundles = new NegativeCache<>(missingBundleCacheSize);
+      this.missingFallbackBundles = new NegativeCache<>(missingBundleCacheSize);
+      this.missingKeyCacheSize = missingKeyCacheSize;
+    }
+
+    /**
+     * Returns the keys known to be missing for a locale, {@code null} if missing keys are not cached or too many
+     * locales are already tracked.
+     */
+    private NegativeCache<String> missingKeys(Locale locale) {
+      if (missingKeyCacheSize == 0) {
+        return null;
+      }
+      NegativeCache<String> keys = missingKeys.get(locale);
+      if (keys == null) {
+        if (missingKeys.size() >= MAX_TRACKED_LOCALES) {
+          return null;
+        }
+        keys = missingKeys.computeIfAbsent(locale, loc -> new NegativeCache<>(missingKeyCacheSize));
+      }
+      return keys;
+    }
+
+    private ConcurrentHashMap<String, Resolution> resolutions(Context context) {
+      int slot = context.getSlot();
+      ConcurrentHashMap<String, Resolution> localeResolutions = slot >= 0 ? resolutionSlots.get(slot) : null;
+      if (localeResolutions != null) {
+        return localeResolutions;
+      }
+      localeResolutions = resolutions.get(context.getLocale());
+      if (localeResolutions == null) {
+        if (resolutions.size() >= MAX_TRACKED_LOCALES) {
+          // resolved for this lookup only
+          return new ConcurrentHashMap<>();
+        }
+        localeResolutions = resolutions.computeIfAbsent(context.getLocale(), loc -> new ConcurrentHashMap<>());
+      }
+      if (slot >= 0) {
+        resolutionSlots.lazySet(slot, localeResolutions);
+      }
+      return localeResolutions;
+    }
+  }
+
+  private record JsonCatalogKey(Locale locale, String keyPrefix) {
+  }
+
+  /**
+   * The bundles a table of messages is built from, identified by their locales, and whether the default locale
+   * messages are merged in: requested locales resolving to the same bundles share the table.
+   */
+  private record TableKey(Locale main, Locale fallback, boolean defaultLocale) {
+  }
+
+  /**
+   * The messages of a flat table with, when instrumented, the origin of the entries not coming from the main bundle.
+   */
+  private record FlatTable(Map<String, String> messages, Map<String, Origin> origins) {
+  }
+
+  /**
+   * The resolved templates of a key set, an array indexed by key id per set of bundles, shared by the requested
+   * locales resolving to them.
+   */
+  private static final class IdTables {
+    /** Up to {@link #MAX_TRACKED_LOCALES} requested locales. */
+    private final ConcurrentHashMap<Locale, String[]> byLocale = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<TableKey, String[]> byBundles = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String[]> slots = new AtomicReferenceArray<>(Context.MAX_SLOTS);
+  }
+
+  private enum Origin {
+    MAIN_BUNDLE, FALLBACK_BUNDLE, DEFAULT_LOCALE
+  }
+
+  /**
+   * A template found through the fallback chain, with where it was found.
+   */
+  private record Resolution(String template, Origin origin) {
+  }
+
+  private Caches newCaches() {
+    return new Caches(missingBundleCacheSize, missingKeyCacheSize);
+  }
+
+  /**
+   * Bypasses the JDK bundle cache, so that a reload reads the properties files again.
+   */
+  private static final class NoCacheControl extends ResourceBundle.Control {
+    @Override
+    public long getTimeToLive(String baseName, Locale locale) {
+      return TTL_DONT_CACHE;
+    }
   }
 
   public static class Builder {
@@ -40,6 +248,20 @@ public class ResourceBundleMessageSource extends MessageSourceBase {
     private Locale defaultLocale = Locale.getDefault();
     private String fallbackResource;
     private ClassLoader classLoader;
+    private int formatCacheSize = MessageFormatCache.DEFAULT_MAX_SIZE;
+    private boolean flatTables;
+    private boolean compactStorage;
+    private Duration reloadInterval;
+    private final Set<Locale> warmUpLocales = new LinkedHashSet<>();
+    private boolean warmUpLocalesDiscovery;
+    private Executor warmUpExecutor = ForkJoinPool.commonPool();
+    private boolean warmUpAwait;
+    private int missingBundleCacheSize = DEFAULT_MISSING_BUNDLE_CACHE_SIZE;
+    private int missingKeyCacheSize;
+    private MessageMetrics metrics = MessageMetrics.NOOP;
+    private boolean defaultLocaleFallback;
+    private MessageLoader loader;
+    private RenderedMessageCache resultCache;
 
     public Builder(String resource) {
       this.resource = resource;
@@ -65,14 +287,194 @@ public class ResourceBundleMessageSource extends MessageSourceBase {
       return this;
     }
 
+    /**
+     * Enables the resolution of main bundle, fallback bundle and their parent chains into a single immutable table per
+     * locale, built on first use. Each lookup then costs a single hash probe.
+     *
+     * @param flatTables {@code true} to enable flat tables.
+     * @return This builder.
+     */
+    public Builder withFlatTables(boolean flatTables) {
+      this.flatTables = flatTables;
+      return this;
+    }
+
+    /**
+     * Enables compact storage of the flat tables, which get enabled as well: keys are stored once across all locales
+     * in a shared index, each locale holds an array of values indexed by key, and equal values share one instance.
+     * Bundles are dropped once their tables are built.
+     *
+     * @param compactStorage {@code true} to enable compact storage.
+     * @return This builder.
+     */
+    public Builder withCompactStorage(boolean compactStorage) {
+      this.compactStorage = compactStorage;
+      return this;
+    }
+
+    /**
+     * Enables the reload of the bundles when their properties files change on disk, checked in background at the given
+     * interval. Files packaged in jars are not watched. Reloading works on flat tables, which get enabled as well.
+     *
+     * @param reloadInterval The interval between checks for changed files.
+     * @return This builder.
+     */
+    public Builder withReloading(Duration reloadInterval) {
+      if (reloadInterval != null && (reloadInterval.isNegative() || reloadInterval.isZero())) {
+        throw new IllegalArgumentException("Reload interval must be positive.");
+      }
+      this.reloadInterval = reloadInterval;
+      return this;
+    }
+
+    /**
+     * Sets locales to load in parallel at startup, so that the first request for each of them does not pay for the
+     * loading.
+     *
+     * @param locales The locales to warm up.
+     * @return This builder.
+     */
+    public Builder withWarmUpLocales(Collection<Locale> locales) {
+      this.warmUpLocales.addAll(locales);
+      return this;
+    }
+
+    /**
+     * Enables the warm up of every locale the main and fallback bundles are found in on the classpath.
+     *
+     * @param warmUpLocalesDiscovery {@code true} to discover the locales to warm up.
+     * @return This builder.
+     */
+    public Builder withWarmUpLocalesDiscovery(boolean warmUpLocalesDiscovery) {
+      this.warmUpLocalesDiscovery = warmUpLocalesDiscovery;
+      return this;
+    }
+
+    /**
+     * Sets the executor loading locales asynchronously, to warm them up or on {@link #preload(Locale)}, by default the
+     * common fork join pool.
+     *
+     * @param warmUpExecutor The executor.
+     * @return This builder.
+     */
+    public Builder withWarmUpExecutor(Executor warmUpExecutor) {
+      if (warmUpExecutor == null) {
+        throw new IllegalArgumentException("Executor must not be null.");
+      }
+      this.warmUpExecutor = warmUpExecutor;
+      return this;
+    }
+
+    /**
+     * Makes {@link #build()} wait for the warm up to finish.
+     *
+     * @param warmUpAwait {@code true} to block until every locale is loaded.
+     * @return This builder.
+     */
+    public Builder withWarmUpAwait(boolean warmUpAwait) {
+      this.warmUpAwait = warmUpAwait;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of locales remembered as having no bundle, so that requests for unsupported locales do
+     * not try to load it again.
+     *
+     * @param missingBundleCacheSize The cache size for each of main and fallback bundles, {@code 0} disables it.
+     * @return This builder.
+     */
+    public Builder withMissingBundleCacheSize(int missingBundleCacheSize) {
+      if (missingBundleCacheSize < 0) {
+        throw new IllegalArgumentException("Cache size must not be negative.");
+      }
+      this.missingBundleCacheSize = missingBundleCacheSize;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of missing keys remembered for each locale, so that a key missing from all the bundles
+     * is not looked up again. Disabled by default; useless with flat tables, where a missing key is a single probe.
+     *
+     * @param missingKeyCacheSize The cache size for each locale, {@code 0} disables it.
+     * @return This builder.
+     */
+    public Builder withMissingKeyCacheSize(int missingKeyCacheSize) {
+      if (missingKeyCacheSize < 0) {
+        throw new IllegalArgumentException("Cache size must not be negative.");
+      }
+      this.missingKeyCacheSize = missingKeyCacheSize;
+      return this;
+    }
+
+    /**
+     * Enables the lookup of messages missing for the requested locale in the bundles of the default locale. The
+     * resolved chain, main and fallback bundle of the requested locale and then of the default locale, is cached per
+     * key and locale.
+     *
+     * @param defaultLocaleFallback Whether to fall back to the default locale, {@code false} by default.
+     * @return This builder.
+     */
+    public Builder withDefaultLocaleFallback(boolean defaultLocaleFallback) {
+      this.defaultLocaleFallback = defaultLocaleFallback;
+      return this;
+    }
+
+    /**
+     * Sets the metrics collecting lookups, bundle hits, missing keys, errors and format latencies, ie a
+     * {@link CountingMessageMetrics}. Disabled by default.
+     *
+     * @param metrics The metrics.
+     * @return This builder.
+     */
+    public Builder withMetrics(MessageMetrics metrics) {
+      this.metrics = metrics != null ? metrics : MessageMetrics.NOOP;
+      return this;
+    }
+
     public ResourceBundleMessageSource build() {
       return new ResourceBundleMessageSource(this);
     }
 
+    /**
+     * Sets the loader of the messages, to read them from a store other than the classpath. Automatic reloading still
+     * watches the classpath files only: with a loader, call {@link ResourceBundleMessageSource#reload()}.
+     *
+     * @param loader The loader, {@code null} to use the classpath.
+     * @return This builder.
+     */
+    public Builder withLoader(MessageLoader loader) {
+      this.loader = loader;
+      return this;
+    }
+
     public Builder withClassLoader(ClassLoader classLoader) {
       this.classLoader = classLoader;
       return this;
     }
+
+    /**
+     * Sets the maximum number of compiled message formats kept in memory.
+     *
+     * @param formatCacheSize The cache size, {@code 0} disables the cache.
+     * @return This builder.
+     */
+    public Builder withFormatCacheSize(int formatCacheSize) {
+      this.formatCacheSize = formatCacheSize;
+      return this;
+    }
+
+    /**
+     * Caches the rendered messages whose arguments are all immutable, see {@link RenderedMessageCache}. The cache is
+     * cleared on {@link ResourceBundleMessageSource#reload()}. It can be shared with other sources, each one getting
+     * its own messages back.
+     *
+     * @param resultCache The cache, {@code null} to render every message.
+     * @return This builder.
+     */
+    public Builder withResultCache(RenderedMessageCache resultCache) {
+      this.resultCache = resultCache;
+      return this;
+    }
   }
 
   public static Builder forResource(String resource) {
@@ -81,74 +483,510 @@ public class ResourceBundleMessageSource extends MessageSourceBase {
 
   @Override
   protected String getMessageTemplate(String key, Context context) throws Exception {
-    String template = null;
-    try {
-      ResourceBundle mainBundle = getMainBundle(context);
-      if (mainBundle != null) {
-        template = mainBundle.getString(key);
+    if (flatTables) {
+      FlatTable table = getFlatTable(context);
+      String template = table.messages().get(key);
+      if (template != null && isInstrumented()) {
+        recordHit(table, context.getLocale(), key);
       }
+      return template;
+    }
+    NegativeCache<String> missingKeys = caches.missingKeys(context.getLocale());
+    if (missingKeys != null && missingKeys.contains(key)) {
+      return null;
+    }
+    String template = lookup(getMainBundle(context), key);
+    if (template != null) {
+      getMetrics().mainBundleHit(context.getLocale());
+      return template;
+    }
+    template = lookup(getFallbackBundle(context), key);
+    if (template != null) {
+      getMetrics().fallbackBundleHit(context.getLocale());
+    } else if (missingKeys != null) {
+      missingKeys.add(key);
+    }
+    return template;
+  }
+
+  @Override
+  protected TemplateLookup templateLookup(Context context) {
+    Locale locale = context.getLocale();
+    if (flatTables) {
+      FlatTable table = getFlatTable(context);
+      Map<String, String> messages = table.messages();
+      if (!isInstrumented()) {
+        return messages::get;
+      }
+      return key -> {
+        String template = messages.get(key);
+        if (template != null) {
+          recordHit(table, locale, key);
+        }
+        return template;
+      };
+    }
+    ResourceBundle mainBundle = getMainBundle(context);
+    ResourceBundle fallbackBundle = getFallbackBundle(context);
+    NegativeCache<String> missingKeys = caches.missingKeys(locale);
+    MessageMetrics metrics = getMetrics();
+    return key -> {
+      if (missingKeys != null && missingKeys.contains(key)) {
+        return null;
+      }
+      String template = lookup(mainBundle, key);
       if (template != null) {
+        metrics.mainBundleHit(locale);
         return template;
       }
-    } catch (MissingResourceException ignored) {
+      template = lookup(fallbackBundle, key);
+      if (template != null) {
+        metrics.fallbackBundleHit(locale);
+      } else if (missingKeys != null) {
+        missingKeys.add(key);
+      }
+      return template;
+    };
+  }
+
+  /**
+   * Looks up a key checking its presence first, so that a missing key does not cost a
+   * {@link MissingResourceException}.
+   */
+  private static String lookup(ResourceBundle bundle, String key) {
+    if (bundle == null || !bundle.containsKey(key)) {
+      return null;
     }
-    try {
-      if (fallbackResource != null) {
-        ResourceBundle fallbackLabels = getFallbackBundle(context);
-        if (fallbackLabels != null) {
-          template = fallbackLabels.getString(key);
-        }
+    return bundle.getString(key);
+  }
+
+  @Override
+  protected String resolveMessageTemplate(String key, Context context) throws Exception {
+    if (!isDefaultLocaleFallback(context)) {
+      return getMessageTemplate(key, context);
+    }
+    if (flatTables) {
+      // flat tables already contain the messages of the default locale
+      String template = getMessageTemplate(key, context);
+      if (template == null && isInstrumented()) {
+        getMetrics().defaultLocaleFallback(context.getLocale());
       }
       return template;
-    } catch (MissingResourceException ignored) {
     }
-    return template;
+    return resolveChain(caches, context, key);
+  }
+
+  @Override
+  protected TemplateLookup resolvingTemplateLookup(Context context) {
+    if (!isDefaultLocaleFallback(context)) {
+      return templateLookup(context);
+    }
+    if (flatTables) {
+      TemplateLookup lookup = templateLookup(context);
+      if (!isInstrumented()) {
+        return lookup;
+      }
+      Locale locale = context.getLocale();
+      MessageMetrics metrics = getMetrics();
+      return key -> {
+        String template = lookup.getMessageTemplate(key);
+        if (template == null) {
+          metrics.defaultLocaleFallback(locale);
+        }
+        return template;
+      };
+    }
+    Caches current = caches;
+    return key -> resolveChain(current, context, key);
+  }
+
+  /**
+   * Looks up the template by key id, in an array per key set and locale holding the templates resolved through the
+   * whole fallback chain, built on the first request. With metrics the key is looked up as a string, so that bundle
+   * hits are counted.
+   */
+  @Override
+  protected String resolveMessageTemplate(MessageKey key, Context context) throws Exception {
+    if (isInstrumented()) {
+      return resolveMessageTemplate(key.getKey(), context);
+    }
+    return idTable(caches, key.getKeys(), context)[key.getId()];
+  }
+
+  private String[] idTable(Caches current, MessageKeys keys, Context context) throws Exception {
+    IdTables tables = current.idTables.get(keys);
+    if (tables == null) {
+      tables = current.idTables.computeIfAbsent(keys, k -> new IdTables());
+    }
+    int slot = context.getSlot();
+    String[] table = slot >= 0 ? tables.slots.get(slot) : null;
+    if (table != null) {
+      return table;
+    }
+    Locale locale = context.getLocale();
+    table = tables.byLocale.get(locale);
+    if (table == null) {
+      TableKey tableKey;
+      try {
+        tableKey = tableKey(current, locale, isDefaultLocaleFallback(context));
+      } finally {
+        releaseBundles(current);
+      }
+      table = tables.byBundles.get(tableKey);
+      if (table == null) {
+        // built outside the map lock: concurrent builds of the same table are equal, the first one is kept
+        TemplateLookup lookup = resolvingTemplateLookup(context);
+        String[] built = new String[keys.size()];
+        for (int i = 0; i < built.length; i++) {
+          built[i] = lookup.getMessageTemplate(keys.get(i).getKey());
+        }
+        table = putIfAbsent(tables.byBundles, tableKey, built);
+      }
+      table = track(tables.byLocale, locale, table);
+    }
+    if (slot >= 0) {
+      tables.slots.lazySet(slot, table);
+    }
+    return table;
+  }
+
+  /**
+   * Returns the template resolved through the whole fallback chain, resolving it only on the first request of a key.
+   */
+  private String resolveChain(Caches current, Context context, String key) {
+    Locale locale = context.getLocale();
+    ConcurrentHashMap<String, Resolution> resolutions = current.resolutions(context);
+    Resolution resolution = resolutions.get(key);
+    if (resolution == null) {
+      // missing keys are not kept with the resolutions, whose size is bounded by the keys of the bundles
+      NegativeCache<String> missingKeys = current.missingKeys(locale);
+      if (missingKeys != null && missingKeys.contains(key)) {
+        recordMissingFallback(locale);
+        return null;
+      }
+      resolution = resolve(current, locale, key);
+      if (resolution == null) {
+        if (missingKeys != null) {
+          missingKeys.add(key);
+        }
+        recordMissingFallback(locale);
+        return null;
+      }
+      resolutions.putIfAbsent(key, resolution);
+    }
+    if (isInstrumented()) {
+      recordHit(locale, resolution.origin());
+    }
+    return resolution.template();
+  }
+
+  /**
+   * Looks up a key in the main and fallback bundles of the locale and then, if enabled, of the default locale.
+   */
+  private Resolution resolve(Caches current, Locale locale, String key) {
+    String template = lookup(mainBundle(current, locale), key);
+    if (template != null) {
+      return new Resolution(template, Origin.MAIN_BUNDLE);
+    }
+    template = lookup(fallbackBundle(current, locale), key);
+    if (template != null) {
+      return new Resolution(template, Origin.FALLBACK_BUNDLE);
+    }
+    Locale defaultLocale = getDefaultContext().getLocale();
+    if (!isUseDefaultLocaleFallback() || locale.equals(defaultLocale)) {
+      return null;
+    }
+    template = lookup(mainBundle(current, defaultLocale), key);
+    if (template == null) {
+      template = lookup(fallbackBundle(current, defaultLocale), key);
+    }
+    return template != null ? new Resolution(template, Origin.DEFAULT_LOCALE) : null;
+  }
+
+  /**
+   * Reports where a template found in a flat table comes from, as recorded when the table was built: the bundles,
+   * possibly already dropped by compact storage, are not looked up again.
+   */
+  private void recordHit(FlatTable table, Locale locale, String key) {
+    Map<String, Origin> origins = table.origins();
+    recordHit(locale, origins != null ? origins.getOrDefault(key, Origin.MAIN_BUNDLE) : Origin.MAIN_BUNDLE);
+  }
+
+  /**
+   * Reports a key missing for the locale and so looked up, in vain, for the default locale too.
+   */
+  private void recordMissingFallback(Locale locale) {
+    if (isInstrumented()) {
+      getMetrics().defaultLocaleFallback(locale);
+    }
+  }
+
+  private void recordHit(Locale locale, Origin origin) {
+    MessageMetrics metrics = getMetrics();
+    switch (origin) {
+      case MAIN_BUNDLE -> metrics.mainBundleHit(locale);
+      case FALLBACK_BUNDLE -> metrics.fallbackBundleHit(locale);
+      case DEFAULT_LOCALE -> metrics.defaultLocaleFallback(locale);
+    }
   }
 
   /**
    * Retrieves all keys and values from the resource bundle for a given locale.
    *
+   * <p>
+   * The map is built on the first request for a locale and then shared until the bundles are reloaded.
+   *
    * @param context The context containing the locale.
-   * @return A map with all keys and their corresponding message values.
+   * @return An immutable map with all keys and their corresponding message values.
    */
   @Override
   public Map<String, String> getAllMessagesKeyAndValue(Context context) {
-    Map<String, String> messages = new HashMap<>();
+    Caches current = caches;
+    return snapshot(current, context.getLocale());
+  }
+
+  /**
+   * Returns the messages whose key starts with the given prefix, served from a sorted copy of the messages built on
+   * the first prefix request for a locale.
+   *
+   * @param context The context containing the locale.
+   * @param keyPrefix The key prefix, an empty prefix matches every key.
+   * @return An immutable map with the matching keys, sorted, and their messages.
+   */
+  @Override
+  public Map<String, String> getAllMessagesKeyAndValue(Context context, String keyPrefix) {
+    if (keyPrefix == null) {
+      throw new IllegalArgumentException("Key prefix must not be null.");
+    }
+    Caches current = caches;
+    Locale locale = context.getLocale();
+    NavigableMap<String, String> sorted = current.sortedSnapshotCache.get(locale);
+    if (sorted == null) {
+      try {
+        TableKey tableKey = tableKey(current, locale, false);
+        sorted = current.sharedSortedSnapshots.get(tableKey);
+        if (sorted == null) {
+          // built outside the map lock, the snapshot may need loading: concurrent copies are equal, one is kept
+          sorted = putIfAbsent(current.sharedSortedSnapshots, tableKey,
+              Collections.unmodifiableNavigableMap(new TreeMap<>(snapshot(current, locale))));
+        }
+      } finally {
+        releaseBundles(current);
+      }
+      sorted = track(current.sortedSnapshotCache, locale, sorted);
+    }
+    if (keyPrefix.isEmpty()) {
+      return sorted;
+    }
+    String end = prefixEnd(keyPrefix);
+    return end != null ? sorted.subMap(keyPrefix, true, end, false) : sorted.tailMap(keyPrefix, true);
+  }
+
+  /**
+   * Returns the messages whose key starts with the given prefix serialized to UTF-8 JSON. Catalogs are kept until the
+   * bundles are reloaded, up to {@value #MAX_JSON_CATALOGS} of them: beyond that they are serialized on every call.
+   *
+   * @param context The context containing the locale.
+   * @param keyPrefix The key prefix, an empty prefix exports every message.
+   * @return The serialized messages.
+   */
+  @Override
+  public JsonCatalog getJsonCatalog(Context context, String keyPrefix) {
+    Caches current = caches;
+    JsonCatalogKey key = new JsonCatalogKey(context.getLocale(), keyPrefix);
+    JsonCatalog catalog = current.jsonCatalogCache.get(key);
+    if (catalog != null) {
+      return catalog;
+    }
+    catalog = JsonCatalog.of(getAllMessagesKeyAndValue(context, keyPrefix));
+    if (current.jsonCatalogCache.size() < MAX_JSON_CATALOGS) {
+      JsonCatalog previous = current.jsonCatalogCache.putIfAbsent(key, catalog);
+      return previous != null ? previous : catalog;
+    }
+    return catalog;
+  }
+
+  /**
+   * Returns the smallest string greater than every string starting with the prefix, {@code null} if there is none.
+   */
+  private static String prefixEnd(String prefix) {
+    for (int i = prefix.length() - 1; i >= 0; i--) {
+      char c = prefix.charAt(i);
+      if (c != Character.MAX_VALUE) {
+        return prefix.substring(0, i) + (char) (c + 1);
+      }
+    }
+    return null;
+  }
+
+  private Map<String, String> snapshot(Caches current, Locale locale) {
+    Map<String, String> snapshot = current.snapshotCache.get(locale);
+    if (snapshot != null) {
+      return snapshot;
+    }
+    if (flatTables && !isUseDefaultLocaleFallback()) {
+      // same content, the flat table can be shared
+      snapshot = flatTable(current, locale).messages();
+    } else {
+      try {
+        TableKey tableKey = tableKey(current, locale, false);
+        snapshot = current.sharedSnapshots.get(tableKey);
+        if (snapshot == null) {
+          // built outside the map lock, bundles may need loading
+          Map<String, String> messages = new HashMap<>();
+          collectMessages(current, locale, messages);
+          snapshot = putIfAbsent(current.sharedSnapshots, tableKey, Map.copyOf(messages));
+        }
+      } finally {
+        releaseBundles(current);
+      }
+    }
+    return track(current.snapshotCache, locale, snapshot);
+  }
+
+  /**
+   * Keeps the value of a requested locale unless {@value #MAX_TRACKED_LOCALES} locales are already tracked, returning
+   * the value kept.
+   */
+  private static <V> V track(ConcurrentHashMap<Locale, V> cache, Locale locale, V value) {
+    return cache.size() < MAX_TRACKED_LOCALES ? putIfAbsent(cache, locale, value) : value;
+  }
+
+  private static <K, V> V putIfAbsent(ConcurrentHashMap<K, V> cache, K key, V value) {
+    V previous = cache.putIfAbsent(key, value);
+    return previous != null ? previous : value;
+  }
+
+  /**
+   * Puts in the given map every message of the main and fallback bundles not already present.
+   */
+  private void collectMessages(Caches current, Locale locale, Map<String, String> messages) {
+    collectMessages(current, locale, messages, null, false);
+  }
+
+  /**
+   * Puts in the given map every message of the main and fallback bundles not already present, recording in the given
+   * origins, if any, the messages added from the fallback bundle or, when collecting the default locale for another
+   * one, from any bundle.
+   */
+  private void collectMessages(Caches current, Locale locale, Map<String, String> messages,
+      Map<String, Origin> origins, boolean defaultLocale) {
     try {
-      ResourceBundle bundle = getMainBundle(context);
+      ResourceBundle bundle = mainBundle(current, locale);
       if (bundle != null) {
         Enumeration<String> keys = bundle.getKeys();
         while (keys.hasMoreElements()) {
           String key = keys.nextElement();
-          messages.put(key, bundle.getString(key));
+          if (messages.putIfAbsent(key, bundle.getString(key)) == null && origins != null && defaultLocale) {
+            origins.put(key, Origin.DEFAULT_LOCALE);
+          }
         }
       }
     } catch (MissingResourceException ignored) {
     }
 
     if (fallbackResource == null) {
-      return messages;
+      return;
     }
     try {
-      ResourceBundle fallbackBundle = getFallbackBundle(context);
+      ResourceBundle fallbackBundle = fallbackBundle(current, locale);
       if (fallbackBundle != null) {
         Enumeration<String> fallbackKeys = fallbackBundle.getKeys();
         while (fallbackKeys.hasMoreElements()) {
           String key = fallbackKeys.nextElement();
-          messages.putIfAbsent(key, fallbackBundle.getString(key));
+          if (messages.putIfAbsent(key, fallbackBundle.getString(key)) == null && origins != null) {
+            origins.put(key, defaultLocale ? Origin.DEFAULT_LOCALE : Origin.FALLBACK_BUNDLE);
+          }
         }
       }
     } catch (MissingResourceException ignored) {
     }
-    return messages;
   }
 
-  private void loadBundlesForLocale(Locale locale) {
+  private FlatTable getFlatTable(Context context) {
+    Caches current = caches;
+    int slot = context.getSlot();
+    FlatTable table = slot >= 0 ? current.flatTableSlots.get(slot) : null;
+    if (table != null) {
+      return table;
+    }
+    table = flatTable(current, context.getLocale());
+    if (slot >= 0) {
+      current.flatTableSlots.lazySet(slot, table);
+    }
+    return table;
+  }
+
+  /**
+   * Returns the flat table of the locale, shared with the other locales resolving to the same bundles: only the
+   * first {@value #MAX_TRACKED_LOCALES} requested locales are remembered, the others resolve their bundles again to
+   * find it.
+   */
+  private FlatTable flatTable(Caches current, Locale locale) {
+    FlatTable table = current.flatTableCache.get(locale);
+    if (table != null) {
+      return table;
+    }
+    try {
+      TableKey key = tableKey(current, locale, mergesDefaultLocale(locale));
+      table = current.flatTableLoads.load(key, current.sharedFlatTables, k -> buildFlatTable(current, locale));
+    } finally {
+      releaseBundles(current);
+    }
+    return track(current.flatTableCache, locale, table);
+  }
+
+  /**
+   * With compact storage drops the bundles once the tables built from them hold everything needed: bundles loaded
+   * again later are dropped by the next build.
+   */
+  private void releaseBundles(Caches current) {
+    if (compactStorage) {
+      current.mainBundleCache.clear();
+      current.fallbackBundleCache.clear();
+    }
+  }
+
+  private boolean mergesDefaultLocale(Locale locale) {
+    return isUseDefaultLocaleFallback() && !locale.equals(getDefaultContext().getLocale());
+  }
+
+  /**
+   * Returns the key of the bundles resolved for the locale, loading them if needed.
+   */
+  private TableKey tableKey(Caches current, Locale locale, boolean defaultLocale) {
+    return new TableKey(bundleLocale(mainBundle(current, locale)), bundleLocale(fallbackBundle(current, locale)),
+        defaultLocale);
+  }
+
+  private static Locale bundleLocale(ResourceBundle bundle) {
+    return bundle != null ? bundle.getLocale() : null;
+  }
+
+  /**
+   * Resolves main bundle, fallback bundle (each with its parent chain) and, if enabled, the default locale messages
+   * into a single immutable table.
+   */
+  private FlatTable buildFlatTable(Caches current, Locale locale) {
+    Map<String, String> messages = new HashMap<>();
+    // the main bundle of the locale is the common origin, the others only are recorded
+    Map<String, Origin> origins = isInstrumented() ? new HashMap<>() : null;
+    collectMessages(current, locale, messages, origins, false);
+    if (mergesDefaultLocale(locale)) {
+      collectMessages(current, getDefaultContext().getLocale(), messages, origins, true);
+    }
+    Map<String, String> table = compactStorage ? CompactTable.of(messages, current.keyIndex, current.valuePool)
+        : Map.copyOf(messages);
+    return new FlatTable(table, origins != null ? Map.copyOf(origins) : null);
+  }
+
+  private void loadBundlesForLocale(Caches current, Locale locale) {
     // Carica main bundle
     try {
       ResourceBundle mainBundle = loadBundle(resource, locale);
-      mainBundleCache.put(locale, mainBundle);
+      current.mainBundleCache.put(locale, mainBundle);
     } catch (MissingResourceException e) {
+      current.missingMainBundles.add(locale);
       LOG.log(Logger.Level.WARNING, "Main bundle not found for locale " + locale);
     }
 
@@ -156,45 +994,489 @@ public class ResourceBundleMessageSource extends MessageSourceBase {
     if (fallbackResource != null) {
       try {
         ResourceBundle fallbackBundle = loadBundle(fallbackResource, locale);
-        fallbackBundleCache.put(locale, fallbackBundle);
+        current.fallbackBundleCache.put(locale, fallbackBundle);
       } catch (MissingResourceException e) {
+        current.missingFallbackBundles.add(locale);
         LOG.log(Logger.Level.WARNING, "Fallback bundle not found for locale " + locale);
       }
     }
   }
 
   protected ResourceBundle getMainBundle(Context context) {
-    return mainBundleCache.computeIfAbsent(context.getLocale(), loc -> {
-      try {
-        return loadBundle(resource, loc);
-      } catch (MissingResourceException e) {
-        return null;
+    Caches current = caches;
+    int slot = context.getSlot();
+    ResourceBundle bundle = slot >= 0 ? current.mainBundleSlots.get(slot) : null;
+    if (bundle == null) {
+      bundle = mainBundle(current, context.getLocale());
+      // missing bundles stay out of the slots, the negative cache answers for them
+      if (bundle != null && slot >= 0) {
+        current.mainBundleSlots.lazySet(slot, bundle);
       }
-    });
+    }
+    return bundle;
   }
 
   protected ResourceBundle getFallbackBundle(Context context) {
+    Caches current = caches;
+    int slot = context.getSlot();
+    ResourceBundle bundle = slot >= 0 ? current.fallbackBundleSlots.get(slot) : null;
+    if (bundle == null) {
+      bundle = fallbackBundle(current, context.getLocale());
+      if (bundle != null && slot >= 0) {
+        current.fallbackBundleSlots.lazySet(slot, bundle);
+      }
+    }
+    return bundle;
+  }
+
+  private ResourceBundle mainBundle(Caches current, Locale locale) {
+    return bundle(current.mainBundleCache, current.mainBundleLoads, current.missingMainBundles, resource, locale);
+  }
+
+  private ResourceBundle fallbackBundle(Caches current, Locale locale) {
     if (fallbackResource == null) {
       return null;
     }
-    return fallbackBundleCache.computeIfAbsent(context.getLocale(), loc -> {
+    return bundle(current.fallbackBundleCache, current.fallbackBundleLoads, current.missingFallbackBundles,
+        fallbackResource, locale);
+  }
+
+  /**
+   * Returns the cached bundle or loads it. The load runs holding no lock, concurrent callers for the same locale wait
+   * for it.
+   */
+  private ResourceBundle bundle(ConcurrentHashMap<Locale, ResourceBundle> cache,
+      SharedLoads<Locale, ResourceBundle> loads, NegativeCache<Locale> missing, String res, Locale locale) {
+    ResourceBundle bundle = cache.get(locale);
+    if (bundle != null || missing.contains(locale)) {
+      return bundle;
+    }
+    return loads.load(locale, cache, loc -> {
       try {
-        return loadBundle(fallbackResource, loc);
+        return loadBundle(res, loc);
       } catch (MissingResourceException e) {
+        missing.add(loc);
         return null;
       }
     });
   }
 
   private ResourceBundle loadBundle(String res, Locale locale) {
+    if (loader != null) {
+      List<Locale> candidates = CANDIDATES.getCandidateLocales(res, locale);
+      List<Map<String, String>> loaded = new ArrayList<>(candidates.size());
+      for (Locale candidate : candidates) {
+        try {
+          loaded.add(loader.load(res, candidate));
+        } catch (IOException e) {
+          // an unreadable store is an error, not a missing bundle to remember
+          throw new UncheckedIOException(e);
+        }
+      }
+      return requireBundle(chain(candidates, loaded), res, locale);
+    }
+    if (reloadControl != null) {
+      return ResourceBundle.getBundle(res, locale, bundleClassLoader(), reloadControl);
+    }
     if (classLoader != null) {
       return ResourceBundle.getBundle(res, locale, classLoader);
     }
     return ResourceBundle.getBundle(res, locale);
   }
 
+  /**
+   * Loads a bundle without blocking the caller, completing with {@code null} if it is missing.
+   */
+  private CompletableFuture<ResourceBundle> loadBundleAsync(String res, Locale locale) {
+    if (loader == null) {
+      return CompletableFuture.supplyAsync(() -> {
+        try {
+          return loadBundle(res, locale);
+        } catch (MissingResourceException e) {
+          return null;
+        }
+      }, loadExecutor);
+    }
+    List<Locale> candidates = CANDIDATES.getCandidateLocales(res, locale);
+    List<CompletableFuture<Map<String, String>>> loads = new ArrayList<>(candidates.size());
+    for (Locale candidate : candidates) {
+      loads.add(loader.loadAsync(res, candidate, loadExecutor));
+    }
+    return CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0]))
+        .thenApply(v -> chain(candidates, loads.stream().map(CompletableFuture::join).toList()));
+  }
+
+  /**
+   * Chains the messages loaded for the candidate locales, from the most specific to the root, into a bundle.
+   *
+   * @return The bundle, {@code null} if no candidate has messages.
+   */
+  private static ResourceBundle chain(List<Locale> candidates, List<Map<String, String>> loaded) {
+    ResourceBundle bundle = null;
+    for (int i = candidates.size() - 1; i >= 0; i--) {
+      Map<String, String> messages = loaded.get(i);
+      if (messages != null) {
+        bundle = new MapResourceBundle(messages, candidates.get(i), bundle);
+      }
+    }
+    return bundle;
+  }
+
+  private static ResourceBundle requireBundle(ResourceBundle bundle, String res, Locale locale) {
+    if (bundle == null) {
+      throw new MissingResourceException("Can't find bundle for base name " + res + ", locale " + locale,
+          res + "_" + locale, "");
+    }
+    return bundle;
+  }
+
+  /**
+   * Loads the bundles of a locale, and its flat table if enabled, without blocking the caller. Bundles are loaded on
+   * the executor set with {@link Builder#withWarmUpExecutor(Executor)} or, with a loader, through
+   * {@link MessageLoader#loadAsync(String, Locale, Executor)}. Concurrent calls for the same locale share one load.
+   *
+   * @param locale The locale.
+   * @return A future completed when the locale is loaded, already completed if it was.
+   */
+  public CompletableFuture<Void> preload(Locale locale) {
+    if (locale == null) {
+      throw new IllegalArgumentException("Locale must not be null.");
+    }
+    Caches current = caches;
+    CompletableFuture<Void> load = current.preloads.get(locale);
+    if (load != null) {
+      return load;
+    }
+    if (isLoaded(current, locale)) {
+      return CompletableFuture.completedFuture(null);
+    }
+    CompletableFuture<Void> claimed = new CompletableFuture<>();
+    load = current.preloads.putIfAbsent(locale, claimed);
+    if (load != null) {
+      return load;
+    }
+    // started holding no lock, the flat table may be built right away on this thread
+    CompletableFuture<Void> started;
+    try {
+      started = startPreload(current, locale);
+    } catch (RuntimeException e) {
+      started = CompletableFuture.failedFuture(e);
+    }
+    started.whenComplete((v, e) -> {
+      if (e != null) {
+        // a failed load is not shared, the next request tries again
+        current.preloads.remove(locale, claimed);
+        claimed.completeExceptionally(e);
+      } else {
+        claimed.complete(null);
+      }
+    });
+    return claimed;
+  }
+
+  private CompletableFuture<Void> startPreload(Caches current, Locale locale) {
+    CompletableFuture<Void> bundles = CompletableFuture.allOf(
+        preload(current.mainBundleCache, current.mainBundleLoads, current.missingMainBundles, resource, locale),
+        fallbackResource != null
+            ? preload(current.fallbackBundleCache, current.fallbackBundleLoads, current.missingFallbackBundles,
+                fallbackResource, locale)
+            : CompletableFuture.completedFuture(null));
+    if (!flatTables || current.flatTableCache.containsKey(locale)) {
+      return bundles;
+    }
+    return bundles.thenRun(() -> flatTable(current, locale));
+  }
+
+  private boolean isLoaded(Caches current, Locale locale) {
+    if (flatTables) {
+      return current.flatTableCache.containsKey(locale);
+    }
+    return isLoaded(current.mainBundleCache, current.missingMainBundles, locale) && (fallbackResource == null
+        || isLoaded(current.fallbackBundleCache, current.missingFallbackBundles, locale));
+  }
+
+  private static boolean isLoaded(ConcurrentHashMap<Locale, ResourceBundle> cache, NegativeCache<Locale> missing,
+      Locale locale) {
+    return cache.containsKey(locale) || missing.contains(locale);
+  }
+
+  /**
+   * Returns {@code true} if resolving messages for the context needs no loading.
+   */
+  private boolean isLoaded(Caches current, Context context) {
+    int slot = context.getSlot();
+    if (slot >= 0) {
+      // filled slots are the cheapest check, empty ones do not mean much
+      Object loaded = flatTables ? current.flatTableSlots.get(slot) : current.mainBundleSlots.get(slot);
+      if (loaded != null && (flatTables || fallbackResource == null || current.fallbackBundleSlots.get(slot) != null)) {
+        return isDefaultLoaded(current, context);
+      }
+    }
+    return isLoaded(current, context.getLocale()) && isDefaultLoaded(current, context);
+  }
+
+  private boolean isDefaultLoaded(Caches current, Context context) {
+    // flat tables already contain the default locale messages
+    return flatTables || !isDefaultLocaleFallback(context) || isLoaded(current, getDefaultContext().getLocale());
+  }
+
+  /**
+   * Loads the locale of the context and, if it falls back to it, the default locale.
+   */
+  private CompletableFuture<Void> preload(Context context) {
+    CompletableFuture<Void> load = preload(context.getLocale());
+    if (flatTables || !isDefaultLocaleFallback(context)) {
+      return load;
+    }
+    return CompletableFuture.allOf(load, preload(getDefaultContext().getLocale()));
+  }
+
+  @Override
+  public CompletableFuture<String> msgAsync(String key, Context context, Object... args) {
+    if (key == null || context == null) {
+      throw new IllegalArgumentException("Key and Context must not be null.");
+    }
+    if (isLoaded(caches, context)) {
+      return CompletableFuture.completedFuture(msg(key, context, args));
+    }
+    // a failed load is reported by the synchronous path, through the error handler
+    return preload(context).handle((v, e) -> msg(key, context, args));
+  }
+
+  @Override
+  public CompletableFuture<Map<String, String>> msgsAsync(Collection<String> keys, Context context) {
+    if (keys == null || context == null) {
+      throw new IllegalArgumentException("Keys and Context must not be null.");
+    }
+    if (isLoaded(caches, context)) {
+      return CompletableFuture.completedFuture(msgs(keys, context));
+    }
+    return preload(context).handle((v, e) -> msgs(keys, context));
+  }
+
+  @Override
+  public CompletableFuture<String[]> msgsWithArgsAsync(List<MessageRequest> requests, Context context) {
+    if (requests == null || context == null) {
+      throw new IllegalArgumentException("Requests and Context must not be null.");
+    }
+    if (isLoaded(caches, context)) {
+      return CompletableFuture.completedFuture(msgsWithArgs(requests, context));
+    }
+    return preload(context).handle((v, e) -> msgsWithArgs(requests, context));
+  }
+
+  private CompletableFuture<ResourceBundle> preload(ConcurrentHashMap<Locale, ResourceBundle> cache,
+      SharedLoads<Locale, ResourceBundle> loads, NegativeCache<Locale> missing, String res, Locale locale) {
+    if (missing.contains(locale)) {
+      return CompletableFuture.completedFuture(null);
+    }
+    // shared with synchronous loads of the same bundle
+    return loads.loadAsync(locale, cache, loc -> loadBundleAsync(res, loc).thenApply(bundle -> {
+      if (bundle == null) {
+        missing.add(loc);
+      }
+      return bundle;
+    }));
+  }
+
   protected void clearCache() {
-    mainBundleCache.clear();
-    fallbackBundleCache.clear();
+    caches = newCaches();
+    clearResultCache();
+  }
+
+  /**
+   * Returns a snapshot of the state of the caches.
+   *
+   * @return The cache statistics.
+   */
+  public CacheStatistics getCacheStatistics() {
+    Caches current = caches;
+    int missingKeys = 0;
+    long missingKeyHits = 0;
+    for (NegativeCache<String> keys : current.missingKeys.values()) {
+      missingKeys += keys.size();
+      missingKeyHits += keys.getHitCount();
+    }
+    int loadedLocales = compactStorage ? current.sharedFlatTables.size() : current.mainBundleCache.size();
+    return new CacheStatistics(getFormatCache(), loadedLocales,
+        current.missingMainBundles.size() + current.missingFallbackBundles.size(),
+        current.missingMainBundles.getHitCount() + current.missingFallbackBundles.getHitCount(), missingKeys,
+        missingKeyHits);
+  }
+
+  /**
+   * Estimates the heap retained by the messages of the loaded locales: their flat tables or, without flat tables,
+   * their bundles.
+   *
+   * @return The estimate.
+   */
+  public CatalogMemory getCatalogMemory() {
+    Caches current = caches;
+    Set<String> keys = Collections.newSetFromMap(new IdentityHashMap<>());
+    Set<String> values = Collections.newSetFromMap(new IdentityHashMap<>());
+    List<Map<String, String>> tables = new ArrayList<>();
+    long tableBytes = 0;
+    if (flatTables) {
+      for (FlatTable table : current.sharedFlatTables.values()) {
+        tables.add(table.messages());
+        if (table.origins() != null) {
+          tableBytes += (long) FLAT_ENTRY_BYTES * table.origins().size();
+        }
+      }
+    } else {
+      for (Locale locale : current.mainBundleCache.keySet()) {
+        Map<String, String> table = new HashMap<>();
+        collectMessages(current, locale, table);
+        tables.add(table);
+      }
+    }
+    int localesCount = 0;
+    int entries = 0;
+    for (Map<String, String> table : tables) {
+      localesCount++;
+      entries += table.size();
+      if (table instanceof CompactTable compact) {
+        tableBytes += 4L * compact.capacity();
+      } else {
+        // flat tables keep their bundles too
+        tableBytes += (long) table.size() * (flatTables ? FLAT_ENTRY_BYTES + BUNDLE_ENTRY_BYTES : BUNDLE_ENTRY_BYTES);
+      }
+      for (Map.Entry<String, String> entry : table.entrySet()) {
+        keys.add(entry.getKey());
+        values.add(entry.getValue());
+      }
+    }
+    if (compactStorage) {
+      tableBytes += (long) KEY_INDEX_ENTRY_BYTES * current.keyIndex.size();
+    }
+    long stringBytes = 0;
+    for (String key : keys) {
+      stringBytes += CatalogMemory.stringBytes(key);
+    }
+    for (String value : values) {
+      stringBytes += CatalogMemory.stringBytes(value);
+    }
+    return new CatalogMemory(localesCount, entries, keys.size(), values.size(), stringBytes, tableBytes);
+  }
+
+  /**
+   * Loads again the bundles of every locale already in use and then publishes them all at once. Readers are never
+   * blocked: until the new bundles are ready they keep using the previous ones.
+   *
+   * <p>
+   * If reloading is not enabled, the JDK bundle cache of the class loader gets cleared too.
+   */
+  public void reload() {
+    if (reloadControl == null) {
+      ResourceBundle.clearCache(bundleClassLoader());
+    }
+    Caches current = caches;
+    Set<Locale> locales = new LinkedHashSet<>();
+    locales.add(getDefaultContext().getLocale());
+    locales.addAll(current.mainBundleCache.keySet());
+    locales.addAll(current.flatTableCache.keySet());
+    Caches fresh = newCaches();
+    for (Locale locale : locales) {
+      loadBundlesForLocale(fresh, locale);
+      if (flatTables) {
+        flatTable(fresh, locale);
+      }
+    }
+    caches = fresh;
+    // after publishing the new bundles, so that messages cached from now on are rendered from them
+    clearResultCache();
+  }
+
+  private CompletableFuture<Void> startWarmUp(Builder builder) {
+    Set<Locale> locales = new LinkedHashSet<>(builder.warmUpLocales);
+    if (builder.warmUpLocalesDiscovery) {
+      locales.addAll(findLocales(resource));
+      if (fallbackResource != null) {
+        locales.addAll(findLocales(fallbackResource));
+      }
+    }
+    locales.remove(builder.defaultLocale);
+    if (locales.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    Caches current = caches;
+    List<CompletableFuture<Void>> loads = new ArrayList<>(locales.size());
+    for (Locale locale : locales) {
+      if (loader != null) {
+        loads.add(preload(locale));
+      } else {
+        loads.add(CompletableFuture.runAsync(() -> warmUp(current, locale), builder.warmUpExecutor));
+      }
+    }
+    return CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0]));
+  }
+
+  private Set<Locale> findLocales(String res) {
+    return loader != null ? loader.locales(res) : BundleFiles.findLocales(bundleClassLoader(), res);
+  }
+
+  private void warmUp(Caches current, Locale locale) {
+    mainBundle(current, locale);
+    fallbackBundle(current, locale);
+    if (flatTables) {
+      flatTable(current, locale);
+    }
+  }
+
+  /**
+   * Returns the warm up of the locales set in the builder, completed when all of them are loaded.
+   *
+   * @return The warm up future, already completed if there is nothing to warm up.
+   */
+  public CompletableFuture<Void> getWarmUp() {
+    return warmUp;
+  }
+
+  private ClassLoader bundleClassLoader() {
+    return classLoader != null ? classLoader : ResourceBundleMessageSource.class.getClassLoader();
+  }
+
+  private ScheduledExecutorService startReloader(Duration interval) {
+    BundleFilesWatcher watcher = new BundleFilesWatcher(bundleClassLoader(), resource, fallbackResource);
+    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "messages-reloader-" + resource);
+      thread.setDaemon(true);
+      return thread;
+    });
+    long millis = interval.toMillis();
+    executor.scheduleWithFixedDelay(() -> {
+      try {
+        if (watcher.hasChanged()) {
+          LOG.log(Logger.Level.INFO, "Bundle files changed, reloading " + resource);
+          reload();
+        }
+      } catch (RuntimeException e) {
+        // keep the task scheduled: an exception would cancel any further check
+        LOG.log(Logger.Level.WARNING, "Reload of " + resource + " failed", e);
+      }
+    }, millis, millis, TimeUnit.MILLISECONDS);
+    return executor;
+  }
+
+  public boolean isFlatTables() {
+    return flatTables;
+  }
+
+  public boolean isCompactStorage() {
+    return compactStorage;
+  }
+
+  public boolean isReloading() {
+    return reloader != null;
+  }
+
+  /**
+   * Stops watching the bundle files, if reloading is enabled.
+   */
+  @Override
+  public void close() {
+    if (reloader != null) {
+      reloader.shutdownNow();
+    }
   }
 }
@@ -0,0 +1,108 @@
+package com.github.enr.messages;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Loads of cache values, ie the bundles of a locale, shared by concurrent callers so that only one load per key runs.
+ *
+ * <p>
+ * Unlike {@code ConcurrentHashMap.computeIfAbsent}, no lock is held while loading: the first caller claims the key
+ * with a future and loads, the others wait on the future. Values are published to the cache before the future is
+ * released, so that later callers find them there. A {@code null} value, ie a missing bundle, is not cached; a failed
+ * load is not remembered either.
+ */
+final class SharedLoads<K, V> {
+
+  private final ConcurrentHashMap<K, CompletableFuture<V>> loads = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the cached value, loading it on the caller thread unless another caller is already loading it.
+   */
+  V load(K key, Map<K, V> cache, Function<? super K, ? extends V> loader) {
+    V value = cache.get(key);
+    if (value != null) {
+      return value;
+    }
+    CompletableFuture<V> load = new CompletableFuture<>();
+    CompletableFuture<V> running = loads.putIfAbsent(key, load);
+    if (running != null) {
+      return join(running);
+    }
+    try {
+      // loaded by a caller who released the key in the meantime
+      value = cache.get(key);
+      if (value == null) {
+        value = loader.apply(key);
+        if (value != null) {
+          cache.putIfAbsent(key, value);
+        }
+      }
+      load.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      loads.remove(key, load);
+    }
+  }
+
+  /**
+   * Returns the cached value or a future of it, starting the given asynchronous load unless another caller is already
+   * loading it.
+   */
+  CompletableFuture<V> loadAsync(K key, Map<K, V> cache, Function<? super K, CompletableFuture<V>> loader) {
+    V value = cache.get(key);
+    if (value != null) {
+      return CompletableFuture.completedFuture(value);
+    }
+    CompletableFuture<V> load = new CompletableFuture<>();
+    CompletableFuture<V> running = loads.putIfAbsent(key, load);
+    if (running != null) {
+      return running;
+    }
+    value = cache.get(key);
+    CompletableFuture<V> started;
+    try {
+      started = value != null ? CompletableFuture.completedFuture(value) : loader.apply(key);
+    } catch (RuntimeException | Error e) {
+      loads.remove(key, load);
+      load.completeExceptionally(e);
+      return load;
+    }
+    started.whenComplete((loaded, e) -> {
+      if (e == null && loaded != null) {
+        cache.putIfAbsent(key, loaded);
+      }
+      loads.remove(key, load);
+      if (e != null) {
+        load.completeExceptionally(e);
+      } else {
+        load.complete(loaded);
+      }
+    });
+    return load;
+  }
+
+  /**
+   * Waits for a load started by another caller, rethrowing its failure as it was thrown.
+   */
+  private static <V> V join(CompletableFuture<V> load) {
+    try {
+      return load.join();
+    } catch (CompletionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package com.github.enr.messages;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Message source of a single tenant, created by a {@link TenantMessageSourceRegistry}: the tenant overrides are looked
+ * up first, then the base source shared by every tenant.
+ *
+ * <p>
+ * Overrides of a locale are loaded on first use, merged with their parents ({@code it_IT}, {@code it}, root), and win
+ * over any base message of the locale chain. Missing keys of the base source fall back as configured on the base.
+ */
+public final class TenantMessageSource extends MessageSourceBase {
+
+  private static final ResourceBundle.Control CANDIDATES =
+      ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_DEFAULT);
+
+  private final String tenantId;
+  private final MessageSourceBase base;
+  private final MessageLoader overridesLoader;
+  private final ConcurrentHashMap<Locale, Map<String, String>> overridesCache = new ConcurrentHashMap<>();
+  private final SharedLoads<Locale, Map<String, String>> overridesLoads = new SharedLoads<>();
+  /** Last access time, updated at most once per {@link TenantMessageSourceRegistry#ACCESS_GRANULARITY_NANOS}. */
+  private volatile long lastAccess;
+
+  TenantMessageSource(String tenantId, MessageSourceBase base, MessageLoader overridesLoader,
+      MissingKeyStrategy missingKeyStrategy, ErrorHandler errorHandler, MessageMetrics metrics, long now) {
+    // compiled templates are shared with the base and the other tenants
+    super(missingKeyStrategy, errorHandler, base.getDefaultContext().getLocale(), false, base.getFormatCache(),
+        metrics);
+    this.tenantId = tenantId;
+    this.base = base;
+    this.overridesLoader = overridesLoader;
+    this.lastAccess = now;
+  }
+
+  public String getTenantId() {
+    return tenantId;
+  }
+
+  @Override
+  protected String getMessageTemplate(String key, Context context) throws Exception {
+    String template = getOverrides(context.getLocale()).get(key);
+    return template != null ? template : base.resolveMessageTemplate(key, context);
+  }
+
+  @Override
+  protected String resolveMessageTemplate(MessageKey key, Context context) throws Exception {
+    Map<String, String> overrides = getOverrides(context.getLocale());
+    String template = overrides.isEmpty() ? null : overrides.get(key.getKey());
+    // keys not overridden keep the id lookup of the base
+    return template != null ? template : base.resolveMessageTemplate(key, context);
+  }
+
+  @Override
+  protected TemplateLookup templateLookup(Context context) {
+    Map<String, String> overrides = getOverrides(context.getLocale());
+    TemplateLookup baseLookup = base.resolvingTemplateLookup(context);
+    if (overrides.isEmpty()) {
+      return baseLookup;
+    }
+    return key -> {
+      String template = overrides.get(key);
+      return template != null ? template : baseLookup.getMessageTemplate(key);
+    };
+  }
+
+  /**
+   * Returns the base messages with the tenant overrides applied, built on every call so that it follows reloads of the
+   * base source.
+   *
+   * @param context The context containing the locale.
+   * @return An immutable map with all keys and their corresponding message values.
+   */
+  @Override
+  public Map<String, String> getAllMessagesKeyAndValue(Context context) {
+    Map<String, String> overrides = getOverrides(context.getLocale());
+    Map<String, String> messages = base.getAllMessagesKeyAndValue(context);
+    if (overrides.isEmpty()) {
+      return messages;
+    }
+    Map<String, String> merged = new HashMap<>(messages);
+    merged.putAll(overrides);
+    return Collections.unmodifiableMap(merged);
+  }
+
+  /**
+   * Returns the number of override messages loaded for the given locale, {@code 0} if not loaded yet.
+   */
+  public int getOverridesSize(Locale locale) {
+    Map<String, String> overrides = overridesCache.get(locale);
+    return overrides != null ? overrides.size() : 0;
+  }
+
+  long getLastAccess() {
+    return lastAccess;
+  }
+
+  void touch(long now) {
+    // a single write per granularity, so that lookups of a busy tenant do not contend on the field
+    if (now - lastAccess > TenantMessageSourceRegistry.ACCESS_GRANULARITY_NANOS) {
+      lastAccess = now;
+    }
+  }
+
+  private Map<String, String> getOverrides(Locale locale) {
+    Map<String, String> overrides = overridesCache.get(locale);
+    if (overrides != null) {
+      return overrides;
+    }
+    return overridesLoads.load(locale, overridesCache, this::loadOverrides);
+  }
+
+  private Map<String, String> loadOverrides(Locale locale) {
+    List<Locale> candidates = CANDIDATES.getCandidateLocales(tenantId, locale);
+    Map<String, String> overrides = new HashMap<>();
+    // root first, so that the most specific locale wins
+    for (int i = candidates.size() - 1; i >= 0; i--) {
+      Map<String, String> messages;
+      try {
+        messages = overridesLoader.load(tenantId, candidates.get(i));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      if (messages != null) {
+        overrides.putAll(messages);
+      }
+    }
+    return overrides.isEmpty() ? Map.of() : Map.copyOf(overrides);
+  }
+}
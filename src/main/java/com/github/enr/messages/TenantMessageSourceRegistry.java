@@ -0,0 +1,241 @@
+package com.github.enr.messages;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Creates and caches the message sources of many tenants, each one layering its own small set of overrides on a
+ * single base source.
+ *
+ * <p>
+ * The base source, usually a {@link ResourceBundleMessageSource}, holds the only copy of the base messages and of the
+ * compiled templates: a tenant source only keeps its overrides, loaded per locale through a {@link MessageLoader}
+ * using the tenant id as resource name. A lookup costs a probe of the overrides plus the lookup of the base source.
+ *
+ * <p>
+ * Tenant sources are created on first request. Beyond the maximum number of tenants the least recently used one is
+ * evicted, and tenants idle for longer than the idle timeout are evicted when a new tenant is created or on
+ * {@link #evictIdle()}. An evicted source keeps working for whoever still holds it.
+ */
+public final class TenantMessageSourceRegistry {
+
+  public static final int DEFAULT_MAX_TENANTS = 1024;
+
+  /** Precision of the last access time of tenants. */
+  static final long ACCESS_GRANULARITY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  /** Tenant ids are used as resource names, so they must not contain dots or path separators. */
+  private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9_-]+");
+
+  private final MessageSourceBase base;
+  private final MessageLoader overridesLoader;
+  private final MissingKeyStrategy missingKeyStrategy;
+  private final ErrorHandler errorHandler;
+  private final MessageMetrics metrics;
+  private final int maxTenants;
+  private final long idleTimeoutNanos;
+  private final LongSupplier nanoTime;
+  private final ConcurrentHashMap<String, TenantMessageSource> tenants = new ConcurrentHashMap<>();
+
+  private TenantMessageSourceRegistry(Builder builder) {
+    this.base = builder.base;
+    this.overridesLoader = builder.overridesLoader;
+    this.missingKeyStrategy = builder.missingKeyStrategy;
+    this.errorHandler = builder.errorHandler;
+    this.metrics = builder.metrics;
+    this.maxTenants = builder.maxTenants;
+    this.idleTimeoutNanos = builder.idleTimeout != null ? builder.idleTimeout.toNanos() : 0L;
+    this.nanoTime = builder.nanoTime;
+  }
+
+  public static class Builder {
+    private final MessageSourceBase base;
+    private MessageLoader overridesLoader;
+    private MissingKeyStrategy missingKeyStrategy = MissingKeyStrategy.defaultStrategy();
+    private ErrorHandler errorHandler = ErrorHandler.defaultHandler();
+    private MessageMetrics metrics = MessageMetrics.NOOP;
+    private int maxTenants = DEFAULT_MAX_TENANTS;
+    private Duration idleTimeout;
+    private LongSupplier nanoTime = System::nanoTime;
+
+    public Builder(MessageSourceBase base) {
+      if (base == null) {
+        throw new IllegalArgumentException("Base source must not be null.");
+      }
+      this.base = base;
+    }
+
+    /**
+     * Sets the loader of the tenant overrides, called with the tenant id as resource name.
+     *
+     * @param overridesLoader The loader.
+     * @return This builder.
+     */
+    public Builder withOverrides(MessageLoader overridesLoader) {
+      this.overridesLoader = overridesLoader;
+      return this;
+    }
+
+    public Builder withMissingKeyStrategy(MissingKeyStrategy missingKeyStrategy) {
+      this.missingKeyStrategy = missingKeyStrategy;
+      return this;
+    }
+
+    public Builder withErrorHandler(ErrorHandler errorHandler) {
+      this.errorHandler = errorHandler;
+      return this;
+    }
+
+    /**
+     * Sets the metrics shared by all the tenant sources.
+     */
+    public Builder withMetrics(MessageMetrics metrics) {
+      this.metrics = metrics != null ? metrics : MessageMetrics.NOOP;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of tenant sources kept, the least recently used one is evicted beyond it.
+     *
+     * @param maxTenants The maximum number of tenants, at least {@code 1}.
+     * @return This builder.
+     */
+    public Builder withMaxTenants(int maxTenants) {
+      if (maxTenants < 1) {
+        throw new IllegalArgumentException("Max tenants must be positive.");
+      }
+      this.maxTenants = maxTenants;
+      return this;
+    }
+
+    /**
+     * Sets the time after which a tenant source not requested is evicted.
+     *
+     * @param idleTimeout The idle timeout, {@code null} to keep idle tenants.
+     * @return This builder.
+     */
+    public Builder withIdleTimeout(Duration idleTimeout) {
+      if (idleTimeout != null && (idleTimeout.isNegative() || idleTimeout.isZero())) {
+        throw new IllegalArgumentException("Idle timeout must be positive.");
+      }
+      this.idleTimeout = idleTimeout;
+      return this;
+    }
+
+    Builder withNanoTime(LongSupplier nanoTime) {
+      this.nanoTime = nanoTime;
+      return this;
+    }
+
+    public TenantMessageSourceRegistry build() {
+      if (overridesLoader == null) {
+        throw new IllegalArgumentException("Overrides loader must not be null.");
+      }
+      return new TenantMessageSourceRegistry(this);
+    }
+  }
+
+  public static Builder forBase(MessageSourceBase base) {
+    return new Builder(base);
+  }
+
+  /**
+   * Returns the source of a tenant, creating it on first request.
+   *
+   * @param tenantId The tenant id, made of letters, digits, {@code _} and {@code -}.
+   * @return The tenant source.
+   */
+  public TenantMessageSource forTenant(String tenantId) {
+    if (tenantId == null) {
+      throw new IllegalArgumentException("Tenant id must not be null.");
+    }
+    long now = nanoTime.getAsLong();
+    TenantMessageSource source = tenants.get(tenantId);
+    if (source != null) {
+      source.touch(now);
+      return source;
+    }
+    if (!TENANT_ID.matcher(tenantId).matches()) {
+      throw new IllegalArgumentException("Tenant id must be made of letters, digits, '_' and '-': " + tenantId);
+    }
+    source = tenants.computeIfAbsent(tenantId, id -> new TenantMessageSource(id, base, overridesLoader,
+        missingKeyStrategy, errorHandler, metrics, now));
+    if (tenants.size() > maxTenants || idleTimeoutNanos > 0) {
+      evict(now, source);
+    }
+    return source;
+  }
+
+  /**
+   * Evicts the tenants idle for longer than the idle timeout.
+   *
+   * @return The number of evicted tenants.
+   */
+  public int evictIdle() {
+    if (idleTimeoutNanos == 0) {
+      return 0;
+    }
+    return evictIdle(nanoTime.getAsLong());
+  }
+
+  /**
+   * Evicts a tenant, so that its overrides are loaded again on the next request.
+   *
+   * @param tenantId The tenant id.
+   * @return {@code true} if the tenant was cached.
+   */
+  public boolean evict(String tenantId) {
+    return tenantId != null && tenants.remove(tenantId) != null;
+  }
+
+  public void clear() {
+    tenants.clear();
+  }
+
+  public int size() {
+    return tenants.size();
+  }
+
+  public int getMaxTenants() {
+    return maxTenants;
+  }
+
+  public MessageSourceBase getBase() {
+    return base;
+  }
+
+  private void evict(long now, TenantMessageSource created) {
+    if (idleTimeoutNanos > 0) {
+      evictIdle(now);
+    }
+    // scanning is linear, but it happens only when a tenant is created
+    while (tenants.size() > maxTenants) {
+      Map.Entry<String, TenantMessageSource> eldest = null;
+      for (Map.Entry<String, TenantMessageSource> entry : tenants.entrySet()) {
+        if (entry.getValue() != created
+            && (eldest == null || entry.getValue().getLastAccess() - eldest.getValue().getLastAccess() < 0)) {
+          eldest = entry;
+        }
+      }
+      if (eldest == null) {
+        return;
+      }
+      tenants.remove(eldest.getKey(), eldest.getValue());
+    }
+  }
+
+  private int evictIdle(long now) {
+    int evicted = 0;
+    for (Map.Entry<String, TenantMessageSource> entry : tenants.entrySet()) {
+      if (now - entry.getValue().getLastAccess() > idleTimeoutNanos
+          && tenants.remove(entry.getKey(), entry.getValue())) {
+        evicted++;
+      }
+    }
+    return evicted;
+  }
+}
@@ -0,0 +1,85 @@
+package com.github.enr.messages;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class ContextRegistryTest {
+
+  private final ContextRegistry registry =
+      new ContextRegistry(List.of(Locale.ITALIAN, Locale.ENGLISH, Locale.forLanguageTag("de-CH")), Locale.ENGLISH);
+
+  @Test
+  void canonicalContextsAreInternedWithSlots() {
+    Context context = Context.of(Locale.ITALIAN);
+
+    assertSame(context, Context.of(new Locale("it")));
+    assertTrue(context.getSlot() >= 0 && context.getSlot() < Context.MAX_SLOTS);
+    assertNotSame(context, new Context(Locale.ITALIAN));
+    assertEquals(-1, new Context(Locale.ITALIAN).getSlot());
+    assertThrows(IllegalArgumentException.class, () -> Context.of(null));
+  }
+
+  @ParameterizedTest
+  @CsvSource(value = {"it,it", "it-IT,it", "de-CH,de-CH", "de,en", "fr,en", "'',en"})
+  void resolvesLanguageTagsToSupportedLocales(String tag, String expected) {
+    Context context = registry.forLanguageTag(tag);
+
+    assertSame(Context.of(Locale.forLanguageTag(expected)), context);
+    assertSame(context, registry.forLanguageTag(tag));
+  }
+
+  @ParameterizedTest
+  @CsvSource(delimiter = '|',
+      value = {"it-CH,it;q=0.9,en;q=0.8|it", "fr-FR,fr;q=0.9,en;q=0.5|en", "fr|en", "de-CH|de-CH", "not a header|en"})
+  void resolvesAcceptLanguage(String header, String expected) {
+    Context context = registry.forAcceptLanguage(header);
+
+    assertSame(Context.of(Locale.forLanguageTag(expected)), context);
+    assertSame(context, registry.forAcceptLanguage(header));
+  }
+
+  @Test
+  void acceptsEveryLocaleWithoutSupportedLocales() {
+    ContextRegistry open = new ContextRegistry(Locale.ENGLISH);
+
+    Context french = open.forAcceptLanguage("fr-FR,fr;q=0.9");
+    assertEquals(Locale.forLanguageTag("fr-FR"), french.getLocale());
+    assertSame(french, open.forLocale(Locale.forLanguageTag("fr-FR")));
+    assertEquals(Locale.JAPANESE, open.forLocale(Locale.JAPANESE).getLocale());
+    assertSame(open.getDefaultContext(), open.forAcceptLanguage(null));
+    assertSame(open.getDefaultContext(), open.forLanguageTag("en"));
+  }
+
+  @Test
+  void requestedLocalesAreNotInterned() {
+    ContextRegistry open = new ContextRegistry(Locale.ENGLISH);
+
+    assertEquals(-1, open.forAcceptLanguage("x-client-supplied-1").getSlot());
+    assertEquals(-1, open.forLanguageTag("zz-ZZ").getSlot());
+    assertSame(registry.getDefaultContext(), registry.forLocale(Locale.forLanguageTag("zz-ZZ")));
+    assertTrue(registry.forLocale(Locale.forLanguageTag("it-IT")).getSlot() >= 0);
+  }
+
+  @Test
+  void cachedResolutionsAreBounded() throws Exception {
+    for (int i = 0; i < ContextRegistry.MAX_CACHED_RESOLUTIONS + 100; i++) {
+      assertSame(Context.of(Locale.ENGLISH), registry.forLocale(new Locale("xx", "", "v" + i)));
+    }
+    Field byLocale = ContextRegistry.class.getDeclaredField("byLocale");
+    byLocale.setAccessible(true);
+
+    assertEquals(ContextRegistry.MAX_CACHED_RESOLUTIONS, ((Map<?, ?>) byLocale.get(registry)).size());
+  }
+}
@@ -0,0 +1,86 @@
+package com.github.enr.messages;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.junit.jupiter.api.Test;
+
+class CountingMessageMetricsTest {
+
+  @Test
+  void latencyBucketsArePowersOfTwoMicroseconds() {
+    assertEquals(0, CountingMessageMetrics.latencyBucket(999));
+    assertEquals(1, CountingMessageMetrics.latencyBucket(1_000));
+    assertEquals(2, CountingMessageMetrics.latencyBucket(3_999));
+    assertEquals(3, CountingMessageMetrics.latencyBucket(4_000));
+    assertEquals(16, CountingMessageMetrics.latencyBucket(Long.MAX_VALUE));
+
+    CountingMessageMetrics metrics = new CountingMessageMetrics();
+    metrics.formatted(Locale.ITALIAN, 500);
+    metrics.formatted(Locale.ENGLISH, 1_500);
+    metrics.formatted(Locale.ENGLISH, 1_000_000_000);
+    Map<String, Long> histogram = metrics.getFormatLatencyHistogram();
+    assertThat(histogram).hasSize(17).containsEntry("<1us", 1L).containsEntry("<2us", 1L)
+        .containsEntry(">=32768us", 1L);
+  }
+
+  @Test
+  void topMissingKeysAreSortedByCount() {
+    CountingMessageMetrics metrics = new CountingMessageMetrics(2);
+    metrics.missingKey(Locale.ITALIAN, "a");
+    metrics.missingKey(Locale.ITALIAN, "b");
+    metrics.missingKey(Locale.ITALIAN, "b");
+    metrics.missingKey(Locale.ENGLISH, "a");
+    metrics.missingKey(Locale.ENGLISH, "a");
+    metrics.missingKey(Locale.ENGLISH, "a");
+
+    assertThat(metrics.getTopMissingKeys()).containsExactly(Map.entry("en:a", 3L), Map.entry("it:b", 2L));
+    assertEquals(6, metrics.getMissingKeys());
+
+    metrics.reset();
+    assertThat(metrics.getTopMissingKeys()).isEmpty();
+    assertEquals(0, metrics.getMissingKeys());
+  }
+
+  @Test
+  void missingKeysAreNotTrackedByDefault() {
+    CountingMessageMetrics metrics = new CountingMessageMetrics();
+    metrics.missingKey(Locale.ITALIAN, "a");
+
+    assertThat(metrics.getTopMissingKeys()).isEmpty();
+    assertEquals(1, metrics.getLocaleMetrics(Locale.ITALIAN).getMissingKeys());
+  }
+
+  @Test
+  void exportsMetricsThroughJmx() throws Exception {
+    CountingMessageMetrics metrics = new CountingMessageMetrics(3);
+    metrics.lookup(Locale.ITALIAN);
+    metrics.mainBundleHit(Locale.ITALIAN);
+    metrics.missingKey(Locale.ENGLISH, "missing");
+    ObjectName name = metrics.registerMBean("com.github.enr.messages:type=MessageMetrics,name=test");
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      assertEquals(1L, server.getAttribute(name, "Lookups"));
+      assertEquals(1L, server.getAttribute(name, "MissingKeys"));
+      TabularData locales = (TabularData) server.getAttribute(name, "LocaleMetrics");
+      CompositeData italian = (CompositeData) locales.get(new Object[] {"it"}).get("value");
+      assertEquals(1L, italian.get("mainBundleHits"));
+      TabularData topMissingKeys = (TabularData) server.getAttribute(name, "TopMissingKeys");
+      assertEquals(1, topMissingKeys.size());
+
+      server.invoke(name, "reset", null, null);
+      assertEquals(0L, server.getAttribute(name, "Lookups"));
+    } finally {
+      server.unregisterMBean(name);
+    }
+  }
+}
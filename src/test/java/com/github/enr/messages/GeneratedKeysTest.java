@@ -0,0 +1,33 @@
+package com.github.enr.messages;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.enr.messages.generated.TestKeys;
+
+// TestKeys is generated by the build from the test bundles
+class GeneratedKeysTest {
+
+  private final ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource("messages.test")
+      .withFallbackResource("messages.fallback").withDefaultLocale(Locale.ENGLISH).build();
+
+  @Test
+  void testGeneratedMethodsLookUpByKeyId() {
+    Context context = Context.of(Locale.ITALIAN);
+
+    assertEquals("Benvenuto John!", TestKeys.welcomeMessage(source, context, "John"));
+    assertEquals("fallback italiano", TestKeys.testMessageOnlyFallback(source, context));
+    assertEquals(source.msg("test.message.both", context), TestKeys.testMessageBoth(source, context));
+  }
+
+  @Test
+  void testGeneratedConstantsShareTheKeySet() {
+    assertSame(TestKeys.KEYS, TestKeys.WELCOME_MESSAGE.getKeys());
+    assertEquals("welcome.message", TestKeys.WELCOME_MESSAGE.getKey());
+    assertEquals(TestKeys.KEYS.size() - 1, TestKeys.WELCOME_MESSAGE.getId());
+  }
+}
@@ -0,0 +1,64 @@
+package com.github.enr.messages;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class JsonCatalogTest {
+
+  @Test
+  void serializesSortedEscapedMessages() {
+    Map<String, String> messages = new LinkedHashMap<>();
+    messages.put("b", "quote \" backslash \\ newline \n tab \t");
+    messages.put("a", "ciao è \u0001 \u2028");
+
+    JsonCatalog catalog = JsonCatalog.of(messages);
+
+    assertEquals("{\"a\":\"ciao è \\u0001 \\u2028\",\"b\":\"quote \\\" backslash \\\\ newline \\n tab \\t\"}",
+        catalog.toString());
+    assertEquals(2, catalog.size());
+    assertEquals(catalog.toString().getBytes(StandardCharsets.UTF_8).length, catalog.getContentLength());
+    assertEquals("{}", JsonCatalog.of(Map.of()).toString());
+  }
+
+  @Test
+  void contentHashDependsOnlyOnMessages() {
+    Map<String, String> messages = new HashMap<>(Map.of("a", "1", "b", "2"));
+    JsonCatalog catalog = JsonCatalog.of(messages);
+
+    assertEquals(catalog.getETag(), JsonCatalog.of(new LinkedHashMap<>(Map.of("b", "2", "a", "1"))).getETag());
+    assertEquals('"' + catalog.getContentHash() + '"', catalog.getETag());
+    assertEquals(64, catalog.getContentHash().length());
+    messages.put("b", "3");
+    assertNotEquals(catalog.getETag(), JsonCatalog.of(messages).getETag());
+  }
+
+  @Test
+  void writesTheSameBytesToStreamsAndChannels() throws IOException {
+    JsonCatalog catalog = JsonCatalog.of(Map.of("key", "valore"));
+    byte[] expected = catalog.toString().getBytes(StandardCharsets.UTF_8);
+
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    catalog.writeTo(stream);
+    assertArrayEquals(expected, stream.toByteArray());
+
+    ByteArrayOutputStream channelTarget = new ByteArrayOutputStream();
+    catalog.writeTo(Channels.newChannel(channelTarget));
+    assertArrayEquals(expected, channelTarget.toByteArray());
+
+    ByteBuffer bytes = catalog.getBytes();
+    assertThrows(java.nio.ReadOnlyBufferException.class, () -> bytes.put(0, (byte) 0));
+  }
+}
@@ -0,0 +1,121 @@
+package com.github.enr.messages;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.Locale;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class KeysGeneratorTest {
+
+  @TempDir
+  Path directory;
+
+  private URLClassLoader bundles;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Path dir = Files.createDirectories(directory.resolve("bundles/keys"));
+    Files.writeString(dir.resolve("app.properties"),
+        "order.total=Total {0,number,integer} on {1,date}\nclass=Class\nsimple=Hello {0}\n", StandardCharsets.UTF_8);
+    Files.writeString(dir.resolve("app_it.properties"), "order.total=Totale {0,number} il {1}\nit.only=Solo\n",
+        StandardCharsets.UTF_8);
+    Files.writeString(dir.resolve("extra.properties"), "extra-key=Extra\n", StandardCharsets.UTF_8);
+    bundles = new URLClassLoader(new URL[] {directory.resolve("bundles").toUri().toURL()});
+  }
+
+  @Test
+  void generatesKeysWithDenseIdsAndTypedMethods() throws IOException {
+    Path file = KeysGenerator.generate(bundles, "com.example.AppKeys", "keys.app", "keys.extra",
+        directory.resolve("generated"));
+
+    assertEquals(directory.resolve("generated/com/example/AppKeys.java"), file);
+    String source = Files.readString(file);
+    assertThat(source).contains("package com.example;",
+        "MessageKeys.of(\n      \"class\",\n      \"extra-key\",\n      \"it.only\",\n      \"order.total\",\n"
+            + "      \"simple\");",
+        "public static final MessageKey CLASS = KEYS.get(0);",
+        "public static final MessageKey EXTRA_KEY = KEYS.get(1);",
+        "public static final MessageKey ORDER_TOTAL = KEYS.get(3);",
+        "public static String class_(MessageSource source, Context context) {",
+        "public static String orderTotal(MessageSource source, Context context, Number arg0, Object arg1) {",
+        "public static String simple(MessageSource source, Context context, Object arg0) {");
+  }
+
+  @Test
+  void generatedClassResolvesMessagesById() throws Exception {
+    Path generated = directory.resolve("generated");
+    Path file = KeysGenerator.generate(bundles, "com.example.AppKeys", "keys.app", "keys.extra", generated);
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    String classpath = Path.of(MessageKey.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    assertEquals(0, compiler.run(null, null, null, "-cp", classpath, "-d", generated.toString(), file.toString()));
+
+    URL[] urls = {generated.toUri().toURL()};
+    try (URLClassLoader loader = new URLClassLoader(urls, getClass().getClassLoader())) {
+      Class<?> keys = loader.loadClass("com.example.AppKeys");
+      ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource("keys.app")
+          .withFallbackResource("keys.extra").withClassLoader(bundles).withDefaultLocale(Locale.ROOT).build();
+      Context context = Context.of(Locale.ROOT);
+
+      MessageKey simple = (MessageKey) keys.getField("SIMPLE").get(null);
+      assertEquals("simple", simple.getKey());
+      assertEquals(4, simple.getId());
+      assertEquals("Hello John", source.msgFor(simple, context, "John"));
+      Method orderTotal = keys.getMethod("orderTotal", MessageSource.class, Context.class, Number.class, Object.class);
+      assertEquals(source.msg("order.total", context, 12, new Date(0L)),
+          orderTotal.invoke(null, source, context, 12, new Date(0L)));
+      Method extraKey = keys.getMethod("extraKey", MessageSource.class, Context.class);
+      assertEquals("Extra", extraKey.invoke(null, source, context));
+    }
+  }
+
+  @Test
+  void keyNamedKeysDoesNotCollideWithTheKeySet() throws Exception {
+    Files.writeString(directory.resolve("bundles/keys/reserved.properties"), "keys=Keys\nKEYS.0=Upper\nKEYS.2=Other\n",
+        StandardCharsets.UTF_8);
+    Path generated = directory.resolve("generated");
+    Path file = KeysGenerator.generate(bundles, "com.example.ReservedKeys", "keys.reserved", null, generated);
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    String classpath = Path.of(MessageKey.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+
+    assertThat(Files.readString(file)).contains("public static final MessageKey KEYS_0 = KEYS.get(0);",
+        "public static final MessageKey KEYS_2 = KEYS.get(1);",
+        "public static final MessageKey KEYS_2_2 = KEYS.get(2);");
+    assertEquals(0, compiler.run(null, null, null, "-cp", classpath, "-d", generated.toString(), file.toString()));
+  }
+
+  @Test
+  void invalidTemplatesFailTheGeneration() throws IOException {
+    Files.writeString(directory.resolve("bundles/keys/broken.properties"), "broken=Hello {0\n", StandardCharsets.UTF_8);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> KeysGenerator.generate(bundles, "AppKeys", "keys.broken", null, directory.resolve("generated")));
+    assertThrows(IllegalArgumentException.class,
+        () -> KeysGenerator.generate(bundles, "com.example.1Keys", "keys.app", null, directory.resolve("generated")));
+  }
+
+  @Test
+  void namesAreJavaIdentifiers() {
+    assertEquals("WELCOME_MESSAGE", KeysGenerator.constantName("welcome.message"));
+    assertEquals("ORDER_TOTAL_AMOUNT", KeysGenerator.constantName("order.totalAmount"));
+    assertEquals("_404_TITLE", KeysGenerator.constantName("404.title"));
+    assertEquals("welcomeMessage", KeysGenerator.methodName("welcome.message"));
+    assertEquals("orderTotalAmount", KeysGenerator.methodName("Order-totalAmount"));
+    assertEquals("_404Title", KeysGenerator.methodName("404.title"));
+  }
+}
@@ -0,0 +1,129 @@
+package com.github.enr.messages;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedCatalogMessageSourceTest {
+
+  private static final String RESOURCE_BUNDLE_NAME = "messages.test";
+  private static final String FALLBACK_BUNDLE_NAME = "messages.fallback";
+
+  @TempDir
+  Path directory;
+
+  private MappedCatalogMessageSource source;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    List<Path> files =
+        CatalogCompiler.compile(getClass().getClassLoader(), RESOURCE_BUNDLE_NAME, FALLBACK_BUNDLE_NAME, directory);
+    assertThat(files).extracting(f -> f.getFileName().toString())
+        .containsExactlyInAnyOrder("messages.test_en.mcat", "messages.test_it.mcat");
+    source = MappedCatalogMessageSource.forCatalog(directory, RESOURCE_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH)
+        .build();
+  }
+
+  @Test
+  void testMessagesFromMainAndFallbackBundles() {
+    Context context = new Context(Locale.ITALIAN);
+    assertEquals("messages italiano", source.msg("test.message.both", context));
+    assertEquals("fallback italiano", source.msg("test.message.only-fallback", context));
+    assertEquals("Benvenuto John!", source.msg("welcome.message", context, "John"));
+    assertEquals("{non.existent.key}", source.msg("non.existent.key", context));
+    assertEquals("Welcome John!", source.msg("welcome.message", "John"));
+  }
+
+  @Test
+  void testCatalogOfClosestLocaleIsUsed() {
+    assertEquals("messages italiano", source.msg("test.message.both", new Context(Locale.ITALY)));
+    assertEquals("{test.message.both}", source.msg("test.message.both", new Context(Locale.JAPANESE)));
+  }
+
+  @Test
+  void testLocalesResolvingToTheSameFileShareTheCatalog() throws Exception {
+    for (int i = 0; i < ResourceBundleMessageSource.MAX_TRACKED_LOCALES + 50; i++) {
+      Context context = new Context(new Locale("it", "", "v" + i));
+      assertEquals("messages italiano", source.msg("test.message.both", context));
+    }
+
+    // english mapped in the constructor
+    assertEquals(2, getField("catalogFiles").size());
+    assertEquals(ResourceBundleMessageSource.MAX_TRACKED_LOCALES, getField("catalogCache").size());
+  }
+
+  private Map<?, ?> getField(String name) throws ReflectiveOperationException {
+    Field field = MappedCatalogMessageSource.class.getDeclaredField(name);
+    field.setAccessible(true);
+    return (Map<?, ?>) field.get(source);
+  }
+
+  @Test
+  void testSameMessagesOfResourceBundleSource() {
+    ResourceBundleMessageSource bundleSource = ResourceBundleMessageSource.forResource(RESOURCE_BUNDLE_NAME)
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH).build();
+    for (Locale locale : List.of(Locale.ENGLISH, Locale.ITALIAN)) {
+      Context context = new Context(locale);
+      assertEquals(bundleSource.getAllMessagesKeyAndValue(context), source.getAllMessagesKeyAndValue(context));
+    }
+  }
+
+  @Test
+  void testBatchResolution() {
+    Map<String, String> result = source.msgs(List.of("test.foo", "missing"), new Context(Locale.ITALIAN));
+    assertThat(result).containsExactly(Map.entry("test.foo", "bar"), Map.entry("missing", "{missing}"));
+  }
+
+  @Test
+  void testCatalogRoundTrip() throws IOException {
+    Map<String, String> messages = new HashMap<>();
+    messages.put("città", "città € 𝄞");
+    messages.put("", "empty key");
+    messages.put("empty.value", "");
+    for (int i = 0; i < 1000; i++) {
+      messages.put("key." + i, "value " + i);
+    }
+    Path file = directory.resolve("roundtrip.mcat");
+    MappedCatalog.write(messages, file);
+
+    MappedCatalog catalog = MappedCatalog.open(file);
+    assertEquals(messages.size(), catalog.size());
+    for (Map.Entry<String, String> entry : messages.entrySet()) {
+      assertEquals(entry.getValue(), catalog.get(entry.getKey()));
+    }
+    assertNull(catalog.get("città2"));
+    assertNull(catalog.get("citt"));
+    assertNull(catalog.get("key.1000"));
+    assertEquals(messages, catalog.toMap());
+  }
+
+  @Test
+  void testInvalidCatalogIsRejected() throws IOException {
+    Path file = Files.writeString(directory.resolve("invalid.mcat"), "not a catalog");
+    assertThrows(IllegalArgumentException.class, () -> MappedCatalog.open(file));
+  }
+
+  @Test
+  void testEmptyCatalog() throws IOException {
+    Path file = directory.resolve("empty.mcat");
+    MappedCatalog.write(Map.of(), file);
+    MappedCatalog catalog = MappedCatalog.open(file);
+    assertEquals(0, catalog.size());
+    assertNull(catalog.get("any"));
+    assertNull(MappedCatalog.EMPTY.get("any"));
+  }
+}
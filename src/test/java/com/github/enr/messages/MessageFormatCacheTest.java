@@ -0,0 +1,92 @@
+package com.github.enr.messages;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Field;
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class MessageFormatCacheTest {
+
+  @Test
+  void testHitAndMissCounters() {
+    MessageFormatCache cache = new MessageFormatCache();
+    cache.get("Welcome {0}!", Locale.ENGLISH);
+    cache.get("Welcome {0}!", Locale.ENGLISH);
+    cache.get("Welcome {0}!", Locale.ITALIAN);
+
+    assertEquals(1, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  void testEachCallerGetsItsOwnInstance() {
+    MessageFormatCache cache = new MessageFormatCache();
+    MessageFormat first = cache.get("{0} {1}", Locale.ENGLISH);
+    MessageFormat second = cache.get("{0} {1}", Locale.ENGLISH);
+
+    assertNotSame(first, second);
+    assertEquals("a b", second.format(new Object[] {"a", "b"}));
+  }
+
+  @Test
+  void testCacheIsBounded() {
+    MessageFormatCache cache = new MessageFormatCache(2);
+    for (int i = 0; i < 10; i++) {
+      cache.get("template " + i + " {0}", Locale.ENGLISH);
+    }
+    assertThat(cache.size()).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  void testZeroSizeDisablesCaching() {
+    MessageFormatCache cache = new MessageFormatCache(0);
+    cache.get("{0}", Locale.ENGLISH);
+    cache.get("{0}", Locale.ENGLISH);
+
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+  }
+
+  @Test
+  void testNegativeSizeIsRejected() {
+    assertThrows(IllegalArgumentException.class, () -> new MessageFormatCache(-1));
+  }
+
+  @Test
+  void testLocaleFormatsAreBoundedAndCleared() throws Exception {
+    MessageFormatCache cache = new MessageFormatCache(2);
+    for (int i = 0; i < 10; i++) {
+      MessageTemplate template = cache.getTemplate("{0} items", new Locale("it", "", "v" + i));
+      assertEquals("1.234 items", template.format(new Object[] {1234}));
+    }
+    Field field = MessageFormatCache.class.getDeclaredField("localeFormats");
+    field.setAccessible(true);
+    Map<?, ?> localeFormats = (Map<?, ?>) field.get(cache);
+    assertEquals(2, localeFormats.size());
+
+    cache.clear();
+    assertTrue(localeFormats.isEmpty());
+  }
+
+  @Test
+  void testMessageSourceUsesCache() {
+    ResourceBundleMessageSource source =
+        ResourceBundleMessageSource.forResource("messages.test").withDefaultLocale(Locale.ENGLISH).build();
+    Context context = new Context(Locale.ENGLISH);
+    assertEquals("Welcome John!", source.msg("welcome.message", context, "John"));
+    assertEquals("Welcome Jane!", source.msg("welcome.message", context, "Jane"));
+
+    assertEquals(1, source.getFormatCache().getMissCount());
+    assertEquals(1, source.getFormatCache().getHitCount());
+  }
+}
@@ -0,0 +1,137 @@
+package com.github.enr.messages;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MessageLoaderTest {
+
+  @TempDir
+  Path directory;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Path dir = Files.createDirectories(directory.resolve("store"));
+    Files.writeString(dir.resolve("labels.properties"), "root.only=root\nboth=root\n", StandardCharsets.UTF_8);
+    Files.writeString(dir.resolve("labels_it.properties"), "both=perché\nwelcome=Ciao {0}\n", StandardCharsets.UTF_8);
+    Files.writeString(dir.resolve("extra_it.properties"), "extra.only=extra\n", StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void directoryLoaderReadsUtf8Properties() throws IOException {
+    MessageLoader loader = MessageLoader.directory(directory);
+
+    assertEquals(Map.of("both", "perché", "welcome", "Ciao {0}"), loader.load("store.labels", Locale.ITALIAN));
+    assertNull(loader.load("store.labels", Locale.GERMAN));
+    assertEquals(Set.of(Locale.ROOT, Locale.ITALIAN), loader.locales("store.labels"));
+    assertEquals(Set.of(), loader.locales("missing.labels"));
+  }
+
+  @Test
+  void directoryLoaderRejectsResourcesOutsideTheDirectory() throws IOException {
+    Path root = Files.createDirectories(directory.resolve("overrides"));
+    Files.writeString(directory.resolve("secret.properties"), "k=SECRET\n", StandardCharsets.UTF_8);
+    MessageLoader loader = MessageLoader.directory(root);
+
+    assertThrows(IllegalArgumentException.class, () -> loader.load("..secret", Locale.ROOT));
+    assertThrows(IllegalArgumentException.class,
+        () -> loader.load(directory.resolve("secret").toString(), Locale.ROOT));
+    assertThrows(IllegalArgumentException.class, () -> loader.locales("..secret"));
+    assertNull(loader.load("secret", Locale.ROOT));
+  }
+
+  @Test
+  void sourceChainsLoadedLocales() {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource("store.labels")
+        .withFallbackResource("store.extra").withLoader(MessageLoader.directory(directory))
+        .withDefaultLocale(Locale.ROOT).build();
+    Context context = new Context(Locale.forLanguageTag("it-CH"));
+
+    assertEquals("Ciao Mario", source.msg("welcome", context, "Mario"));
+    assertEquals("perché", source.msg("both", context));
+    assertEquals("root", source.msg("root.only", context));
+    assertEquals("extra", source.msg("extra.only", context));
+    assertEquals("{missing}", source.msg("missing", context));
+    assertEquals("root", source.msg("both", new Context(Locale.GERMAN)));
+    assertThat(source.getAllMessagesKeyAndValue(context)).containsOnlyKeys("root.only", "both", "welcome",
+        "extra.only");
+  }
+
+  @Test
+  void preloadDoesNotBlockOnTheStore() {
+    List<Locale> blocking = new CopyOnWriteArrayList<>();
+    List<Locale> async = new CopyOnWriteArrayList<>();
+    MessageLoader store =
+        MessageLoader.of(Map.of(Locale.ENGLISH, Map.of("key", "english"), Locale.ITALIAN, Map.of("key", "italiano")));
+    MessageLoader loader = new MessageLoader() {
+      @Override
+      public Map<String, String> load(String resource, Locale locale) throws IOException {
+        blocking.add(locale);
+        return store.load(resource, locale);
+      }
+
+      @Override
+      public CompletableFuture<Map<String, String>> loadAsync(String resource, Locale locale, Executor executor) {
+        async.add(locale);
+        return store.loadAsync(resource, locale, executor);
+      }
+    };
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource("labels").withLoader(loader)
+        .withDefaultLocale(Locale.ENGLISH).withFlatTables(true).build();
+    blocking.clear();
+
+    source.preload(Locale.ITALIAN).join();
+
+    assertEquals("italiano", source.msg("key", new Context(Locale.ITALIAN)));
+    assertThat(async).containsExactly(Locale.ITALIAN, Locale.ROOT);
+    assertThat(blocking).isEmpty();
+    assertTrue(source.preload(Locale.ITALIAN).isDone());
+  }
+
+  @Test
+  void warmUpDiscoversLoaderLocales() {
+    List<Locale> loaded = new CopyOnWriteArrayList<>();
+    MessageLoader store = MessageLoader.of(Map.of(Locale.ENGLISH, Map.of("key", "english"), Locale.ITALIAN,
+        Map.of("key", "italiano")));
+    MessageLoader loader = new MessageLoader() {
+      @Override
+      public Map<String, String> load(String resource, Locale locale) throws IOException {
+        return store.load(resource, locale);
+      }
+
+      @Override
+      public CompletableFuture<Map<String, String>> loadAsync(String resource, Locale locale, Executor executor) {
+        loaded.add(locale);
+        return store.loadAsync(resource, locale, executor);
+      }
+
+      @Override
+      public Set<Locale> locales(String resource) {
+        return store.locales(resource);
+      }
+    };
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource("labels").withLoader(loader)
+        .withDefaultLocale(Locale.ENGLISH).withWarmUpLocalesDiscovery(true).withWarmUpAwait(true).build();
+
+    assertThat(loaded).containsExactlyInAnyOrder(Locale.ITALIAN, Locale.ROOT);
+    assertEquals("italiano", source.msg("key", new Context(Locale.ITALIAN)));
+  }
+}
@@ -1,10 +1,15 @@
 package com.github.enr.messages;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -109,6 +114,90 @@ class MessageSourceBaseTest {
     assertFalse(withoutFallback.isUseDefaultLocaleFallback());
   }
 
+  @Test
+  @DisplayName("Batch - Keys Resolved In Order With Default Locale Fallback")
+  void batchKeysResolvedInOrderWithDefaultLocaleFallback() {
+    messageSource = builder().useDefaultLocaleFallback(true).build();
+    Map<String, String> result =
+        messageSource.msgs(List.of("fallback.key", "test.key", "nonexistent.key"), new Context(ITALIAN));
+    assertThat(result).containsExactly(Map.entry("fallback.key", "This is a fallback"),
+        Map.entry("test.key", "Ciao mondo"), Map.entry("nonexistent.key", "{nonexistent.key}"));
+  }
+
+  @Test
+  @DisplayName("Batch - Requests With Arguments")
+  void batchRequestsWithArguments() {
+    messages.get(ENGLISH).put("greeting", "Hi {0}, you are {1}");
+    messageSource = builder().build();
+    String[] result = messageSource.msgsWithArgs(
+        List.of(MessageRequest.of("greeting", "John", "welcome"), MessageRequest.of("test.key")),
+        new Context(ENGLISH));
+    assertArrayEquals(new String[] {"Hi John, you are welcome", "Hello world"}, result);
+  }
+
+  @Test
+  @DisplayName("Streaming - Messages Appended To StringBuilder")
+  void streamingMessagesAppendedToStringBuilder() {
+    messages.get(ENGLISH).put("greeting", "Hi {0}, it''s {1}");
+    messageSource = builder().useDefaultLocaleFallback(true).build();
+    StringBuilder sb = new StringBuilder("> ");
+    messageSource.msgTo(sb, "greeting", new Context(ENGLISH), "John", "late").append(" | ");
+    messageSource.msgTo(sb, "fallback.key", new Context(ITALIAN)).append(" | ");
+    messageSource.msgTo(sb, "nonexistent.key", new Context(ITALIAN)).append(" | ");
+    messageSource.msgTo(sb, "test.key", new Context(ITALIAN), (Object[]) null);
+    assertEquals("> Hi John, it's late | This is a fallback | {nonexistent.key} | Ciao mondo", sb.toString());
+  }
+
+  @Test
+  @DisplayName("Streaming - Messages Written To Appendable")
+  void streamingMessagesWrittenToAppendable() throws IOException {
+    messages.get(ENGLISH).put("count", "{0,number,integer} items");
+    messageSource = builder().build();
+    StringWriter out = new StringWriter();
+    messageSource.msgTo(out, "count", new Context(ENGLISH), 1234);
+    assertEquals(messageSource.msg("count", new Context(ENGLISH), 1234), out.toString());
+  }
+
+  @Test
+  @DisplayName("Streaming - Partial Message Dropped On Error")
+  void streamingPartialMessageDroppedOnError() {
+    messages.get(ENGLISH).put("broken", "before {0} after");
+    messageSource = builder().build();
+    Object failing = new Object() {
+      @Override
+      public String toString() {
+        throw new IllegalStateException("boom");
+      }
+    };
+    StringBuilder sb = new StringBuilder("start ");
+    messageSource.msgTo(sb, "broken", new Context(ENGLISH), failing);
+    assertEquals("start {broken}: boom", sb.toString());
+    assertEquals("{broken}: boom", messageSource.msg("broken", new Context(ENGLISH), failing));
+  }
+
+  @Test
+  @DisplayName("Metrics - Lookups, Fallbacks, Missing Keys And Errors Counted")
+  void metricsCountLookupsFallbacksMissingKeysAndErrors() {
+    CountingMessageMetrics metrics = new CountingMessageMetrics(5);
+    messageSource = builder().useDefaultLocaleFallback(true).metrics(metrics).build();
+    Context italian = new Context(ITALIAN);
+
+    messageSource.msg("test.key", italian, "unused");
+    messageSource.msg("fallback.key", italian);
+    messageSource.msg("missing.key", italian);
+    messageSource.msgs(List.of("missing.key", "test.key"), italian);
+    messages.get(ITALIAN).put("broken.key", "{0,number,integer}");
+    messageSource.msg("broken.key", italian, "not a number");
+
+    LocaleMetrics localeMetrics = metrics.getLocaleMetrics(ITALIAN);
+    assertEquals(6, localeMetrics.getLookups());
+    assertEquals(3, localeMetrics.getDefaultLocaleFallbacks());
+    assertEquals(2, localeMetrics.getMissingKeys());
+    assertEquals(1, localeMetrics.getErrors());
+    assertEquals(3, localeMetrics.getFormatLatencyHistogram().values().stream().mapToLong(Long::longValue).sum());
+    assertThat(metrics.getTopMissingKeys()).containsExactly(Map.entry("it:missing.key", 2L));
+  }
+
   /**
    * A mock implementation of MessageSourceBase for testing purposes.
    */
@@ -117,8 +206,8 @@ class MessageSourceBaseTest {
     private final Map<Locale, Map<String, String>> messages;
 
     MockMessageSource(MissingKeyStrategy missingKeyStrategy, ErrorHandler errorHandler, Locale defaultLocale,
-        boolean useDefaultLocaleFallback, Map<Locale, Map<String, String>> messages) {
-      super(missingKeyStrategy, errorHandler, defaultLocale, useDefaultLocaleFallback);
+        boolean useDefaultLocaleFallback, MessageMetrics metrics, Map<Locale, Map<String, String>> messages) {
+      super(missingKeyStrategy, errorHandler, defaultLocale, useDefaultLocaleFallback, null, metrics);
       this.messages = messages;
     }
 
@@ -137,6 +226,7 @@ class MessageSourceBaseTest {
       private boolean useDefaultLocaleFallback = false;
       private MissingKeyStrategy missingKeyStrategy = MissingKeyStrategy.defaultStrategy();
       private ErrorHandler errorHandler = ErrorHandler.defaultHandler();
+      private MessageMetrics metrics;
 
       Builder(Map<Locale, Map<String, String>> messages) {
         this.messages = messages;
@@ -152,9 +242,14 @@ class MessageSourceBaseTest {
         return this;
       }
 
+      public Builder metrics(MessageMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+      }
+
       public MockMessageSource build() {
         return new MockMessageSource(missingKeyStrategy, errorHandler, defaultLocale, useDefaultLocaleFallback,
-            messages);
+            metrics, messages);
       }
     }
 
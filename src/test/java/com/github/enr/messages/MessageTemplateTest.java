@@ -0,0 +1,103 @@
+package com.github.enr.messages;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.text.MessageFormat;
+import java.util.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MessageTemplateTest {
+
+  private static final List<Object[]> ARGUMENTS = List.of(new Object[0], new Object[] {"John"},
+      new Object[] {"John", "Jane", "Jim"}, new Object[] {null, 1234567.891, new Date(0L)},
+      new Object[] {42, new BigDecimal("-1.5"), Locale.ITALY}, new Object[] {"{1}", "'quoted'", "x"});
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "plain text", "Welcome {0}!", "{0}{1}{2}", "{0}{0}", "{2} before {0}", "It''s {0}",
+      "'{0}' is literal", "'{'{0}'}'", "''{0}''", "a '' b ''' c'' {1}", "'unterminated {0}", "{ 1 }", "{1}{",
+      "ünïcödé € {0} 𝄞", "{0}, {1}, {2}, {3}", "missing {5}"})
+  void testSimpleTemplatesMatchMessageFormat(String pattern) {
+    for (Locale locale : List.of(Locale.ENGLISH, Locale.ITALIAN, Locale.GERMANY)) {
+      MessageFormat expected;
+      try {
+        expected = new MessageFormat(pattern, locale);
+      } catch (IllegalArgumentException e) {
+        assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile(pattern, locale));
+        continue;
+      }
+      MessageTemplate template = MessageTemplate.compile(pattern, locale);
+      assertTrue(template.isSimple(), pattern);
+      for (Object[] args : ARGUMENTS) {
+        assertEquals(expected.format(args), template.format(args), pattern);
+      }
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"{0,number}", "{0,number,#.##} and {1}", "{1,date,short}", "{1,time}",
+      "{0,choice,0#none|1#one|1<many {0}}", "'{0}' {0,number,integer}"})
+  void testSubFormatsAreRenderedByMessageFormat(String pattern) {
+    MessageTemplate template = MessageTemplate.compile(pattern, Locale.ENGLISH);
+    assertFalse(template.isSimple());
+    Object[] args = {2, new Date(0L)};
+    assertEquals(new MessageFormat(pattern, Locale.ENGLISH).format(args), template.format(args));
+  }
+
+  @Test
+  void testPooledFormatsAreUsedByOneThreadAtATime() throws Exception {
+    MessageTemplate numbers = MessageTemplate.compile("{0,number,#.##} on {1,date,short}", Locale.ITALIAN);
+    MessageTemplate plain = MessageTemplate.compile("{0} on {1}", Locale.GERMANY);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        int seed = t;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 2_000; i++) {
+            Object[] args = {seed * 1000.5 + i, new Date(i * 86_400_000L)};
+            assertEquals(new MessageFormat("{0,number,#.##} on {1,date,short}", Locale.ITALIAN).format(args),
+                numbers.format(args));
+            assertEquals(new MessageFormat("{0} on {1}", Locale.GERMANY).format(args), plain.format(args));
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testReentrantFormatting() {
+    MessageTemplate template = MessageTemplate.compile("[{0,number,integer}] {1}", Locale.ENGLISH);
+    Object nested = new Object() {
+      @Override
+      public String toString() {
+        return template.format(new Object[] {2000, "inner"});
+      }
+    };
+    assertEquals("[1,000] [2,000] inner", template.format(new Object[] {1000, nested}));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"{0", "{x}", "{-1}", "{0,unknown}"})
+  void testInvalidTemplates(String pattern) {
+    assertThrows(IllegalArgumentException.class, () -> MessageTemplate.compile(pattern, Locale.ENGLISH));
+  }
+}
@@ -0,0 +1,140 @@
+package com.github.enr.messages;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+class RenderedMessageCacheTest {
+
+  private final Context english = Context.of(Locale.ENGLISH);
+
+  private ResourceBundleMessageSource source(RenderedMessageCache cache) {
+    return ResourceBundleMessageSource.forResource("messages.test").withDefaultLocale(Locale.ENGLISH)
+        .withMissingKeyStrategy(key -> key).withResultCache(cache).build();
+  }
+
+  @Test
+  void testRenderedMessagesAreCached() {
+    RenderedMessageCache cache = new RenderedMessageCache();
+    ResourceBundleMessageSource source = source(cache);
+
+    assertEquals("Welcome John!", source.msg("welcome.message", english, "John"));
+    assertEquals("Welcome John!", source.msg("welcome.message", english, "John"));
+    assertEquals("Welcome Jane!", source.msg("welcome.message", english, "Jane"));
+    assertEquals("bar", source.msg("test.foo", english));
+    assertEquals("bar", source.msgFor(MessageKeys.of("test.foo").get(0), english));
+
+    assertEquals(3, cache.size());
+    assertEquals(2, cache.getHitCount());
+    assertEquals(3, cache.getMissCount());
+  }
+
+  @Test
+  void testBatchLookupsUseTheCache() {
+    RenderedMessageCache cache = new RenderedMessageCache();
+    ResourceBundleMessageSource source = source(cache);
+    source.msg("welcome.message", english, "John");
+
+    String[] messages =
+        source.msgsWithArgs(List.of(new MessageRequest("welcome.message", new Object[] {"John"})), english);
+
+    assertEquals("Welcome John!", messages[0]);
+    assertEquals(1, cache.getHitCount());
+  }
+
+  @Test
+  void testMutableArgumentsAreNotCached() {
+    RenderedMessageCache cache = new RenderedMessageCache();
+    ResourceBundleMessageSource source = source(cache);
+    source.msg("welcome.message", english, new Date(0));
+    source.msg("welcome.message", english, new StringBuilder("John"));
+
+    assertEquals(0, cache.size());
+    assertFalse(RenderedMessageCache.isCacheable(new Object[] {"a", new Date()}));
+    assertTrue(
+        RenderedMessageCache.isCacheable(new Object[] {"a", 1, 2L, null, BigDecimal.ONE, Locale.Category.FORMAT}));
+  }
+
+  @Test
+  void testMissingKeysAreNotCached() {
+    RenderedMessageCache cache = new RenderedMessageCache();
+    ResourceBundleMessageSource source = source(cache);
+
+    assertEquals("not.a.key", source.msg("not.a.key", english));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void testArgumentsChangedByTheCallerDoNotAffectTheCache() {
+    RenderedMessageCache cache = new RenderedMessageCache();
+    ResourceBundleMessageSource source = source(cache);
+    Object[] args = {"John"};
+    source.msg("welcome.message", english, args);
+    args[0] = "Jane";
+
+    assertEquals("Welcome Jane!", source.msg("welcome.message", english, args));
+    assertEquals("Welcome John!", source.msg("welcome.message", english, "John"));
+  }
+
+  @Test
+  void testCacheIsBoundedBySize() {
+    RenderedMessageCache cache = new RenderedMessageCache(2);
+    ResourceBundleMessageSource source = source(cache);
+    for (int i = 0; i < 10; i++) {
+      source.msg("welcome.message", english, i);
+    }
+    assertThat(cache.size()).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  void testCacheIsBoundedByChars() {
+    RenderedMessageCache cache = new RenderedMessageCache(100, 30);
+    ResourceBundleMessageSource source = source(cache);
+    for (int i = 0; i < 10; i++) {
+      source.msg("welcome.message", english, "user " + i);
+    }
+    source.msg("welcome.message", english, "a name longer than the whole cache");
+
+    assertThat(cache.getChars()).isLessThanOrEqualTo(30);
+    assertThat(cache.size()).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  void testClearCacheDropsMessages() {
+    RenderedMessageCache cache = new RenderedMessageCache();
+    ResourceBundleMessageSource source = source(cache);
+    source.msg("test.foo", english);
+    source.clearCache();
+
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getChars());
+  }
+
+  @Test
+  void testSharedCacheKeepsSourcesApart() {
+    RenderedMessageCache cache = new RenderedMessageCache();
+    ResourceBundleMessageSource source = source(cache);
+    ResourceBundleMessageSource other = ResourceBundleMessageSource.forResource("messages.chain")
+        .withDefaultLocale(Locale.ENGLISH).withMissingKeyStrategy(key -> key).withResultCache(cache).build();
+
+    assertEquals("Welcome John!", source.msg("welcome.message", english, "John"));
+    assertEquals("welcome.message", other.msg("welcome.message", english, "John"));
+    assertEquals("Welcome John!", source.msg("welcome.message", english, "John"));
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  void testBoundsMustBePositive() {
+    assertThrows(IllegalArgumentException.class, () -> new RenderedMessageCache(0));
+    assertThrows(IllegalArgumentException.class, () -> new RenderedMessageCache(10, 0));
+  }
+}
@@ -0,0 +1,146 @@
+package com.github.enr.messages;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ResourceBundleMessageSourceAsyncTest {
+
+  private static final Map<Locale, Map<String, String>> MESSAGES = Map.of(Locale.ENGLISH,
+      Map.of("greeting", "Hello {0}", "english.only", "english"), Locale.ITALIAN, Map.of("greeting", "Ciao {0}"));
+
+  /**
+   * Loader completing the asynchronous loads only when told to.
+   */
+  private static class PendingLoader implements MessageLoader {
+    private final Map<Locale, CompletableFuture<Map<String, String>>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger asyncLoads = new AtomicInteger();
+
+    @Override
+    public Map<String, String> load(String resource, Locale locale) throws IOException {
+      return MESSAGES.get(locale);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> loadAsync(String resource, Locale locale, Executor executor) {
+      asyncLoads.incrementAndGet();
+      return pending.computeIfAbsent(locale, loc -> new CompletableFuture<>());
+    }
+
+    void completeAll() {
+      pending.forEach((locale, future) -> future.complete(MESSAGES.get(locale)));
+    }
+  }
+
+  private static ResourceBundleMessageSource source(MessageLoader loader, boolean flatTables) {
+    return ResourceBundleMessageSource.forResource("labels").withLoader(loader).withDefaultLocale(Locale.ENGLISH)
+        .withDefaultLocaleFallback(true).withFlatTables(flatTables).build();
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void loadedLocalesCompleteSynchronously(boolean flatTables) {
+    PendingLoader loader = new PendingLoader();
+    ResourceBundleMessageSource source = source(loader, flatTables);
+    Context english = Context.of(Locale.ENGLISH);
+    source.msg("greeting", english);
+
+    CompletableFuture<String> message = source.msgAsync("greeting", english, "John");
+
+    assertTrue(message.isDone());
+    assertEquals("Hello John", message.join());
+    assertEquals(0, loader.asyncLoads.get());
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void concurrentRequestsShareOneLoad(boolean flatTables) {
+    PendingLoader loader = new PendingLoader();
+    ResourceBundleMessageSource source = source(loader, flatTables);
+    Context italian = Context.of(Locale.ITALIAN);
+
+    CompletableFuture<String> first = source.msgAsync("greeting", italian, "Mario");
+    CompletableFuture<String> second = source.msgAsync("english.only", italian);
+    CompletableFuture<Map<String, String>> batch = source.msgsAsync(List.of("greeting"), italian);
+    CompletableFuture<String[]> batchWithArgs =
+        source.msgsWithArgsAsync(List.of(MessageRequest.of("greeting", "Luigi")), new Context(Locale.ITALIAN));
+
+    assertFalse(first.isDone() || second.isDone() || batch.isDone() || batchWithArgs.isDone());
+    // it and root, once for all the requests
+    assertEquals(2, loader.asyncLoads.get());
+
+    loader.completeAll();
+
+    assertEquals("Ciao Mario", first.join());
+    assertEquals("english", second.join());
+    assertThat(batch.join()).containsExactly(Map.entry("greeting", "Ciao {0}"));
+    assertArrayEquals(new String[] {"Ciao Luigi"}, batchWithArgs.join());
+    assertTrue(source.msgAsync("greeting", italian, "Anna").isDone());
+    assertEquals(2, loader.asyncLoads.get());
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void failedLoadsAreRetried(boolean flatTables) {
+    AtomicInteger attempts = new AtomicInteger();
+    MessageLoader loader = new MessageLoader() {
+      @Override
+      public Map<String, String> load(String resource, Locale locale) throws IOException {
+        if (locale.equals(Locale.ITALIAN)) {
+          throw new IOException("store down");
+        }
+        return MESSAGES.get(locale);
+      }
+
+      @Override
+      public CompletableFuture<Map<String, String>> loadAsync(String resource, Locale locale, Executor executor) {
+        if (locale.equals(Locale.ITALIAN)) {
+          attempts.incrementAndGet();
+          return CompletableFuture.failedFuture(new IOException("store down"));
+        }
+        return CompletableFuture.completedFuture(MESSAGES.get(locale));
+      }
+    };
+    ResourceBundleMessageSource source = source(loader, flatTables);
+    Context italian = Context.of(Locale.ITALIAN);
+
+    assertEquals("{greeting}: java.io.IOException: store down", source.msgAsync("greeting", italian).join());
+    assertTrue(source.preload(Locale.ITALIAN).isCompletedExceptionally());
+    assertEquals(2, attempts.get());
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void failedLoadsGoThroughTheErrorHandlerInBatches(boolean flatTables) {
+    MessageLoader loader = (resource, locale) -> {
+      if (locale.equals(Locale.ITALIAN)) {
+        throw new IOException("store down");
+      }
+      return MESSAGES.get(locale);
+    };
+    ResourceBundleMessageSource source = source(loader, flatTables);
+    Context italian = Context.of(Locale.ITALIAN);
+
+    assertThat(source.msgs(List.of("greeting"), italian))
+        .containsExactly(Map.entry("greeting", "{greeting}: java.io.IOException: store down"));
+    assertThat(source.msgsAsync(List.of("greeting", "other"), italian).join()).containsExactly(
+        Map.entry("greeting", "{greeting}: java.io.IOException: store down"),
+        Map.entry("other", "{other}: java.io.IOException: store down"));
+    assertArrayEquals(new String[] {"{greeting}: java.io.IOException: store down"},
+        source.msgsWithArgsAsync(List.of(new MessageRequest("greeting", "Anna")), italian).join());
+  }
+}
@@ -0,0 +1,141 @@
+package com.github.enr.messages;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Cold locales requested by thousands of concurrent tasks, on virtual threads where the runtime has them.
+ */
+class ResourceBundleMessageSourceConcurrencyTest {
+
+  private static final int LOCALES = 20;
+  private static final int TASKS = 5_000;
+
+  private final Map<Locale, Map<String, String>> messages = new HashMap<>();
+  private final Map<Locale, AtomicInteger> loads = new ConcurrentHashMap<>();
+  private final List<Locale> locales = new ArrayList<>();
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    for (String language : Locale.getISOLanguages()) {
+      if (locales.size() == LOCALES) {
+        break;
+      }
+      if (!language.equals("en")) {
+        locales.add(new Locale(language));
+      }
+    }
+    messages.put(Locale.ENGLISH, Map.of("greeting", "en {0}"));
+    for (Locale locale : locales) {
+      messages.put(locale, Map.of("greeting", locale + " {0}"));
+    }
+    executor = newExecutor();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static ExecutorService newExecutor() {
+    try {
+      // a virtual thread per task since Java 21, compiled against 17
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newFixedThreadPool(256);
+    }
+  }
+
+  private ResourceBundleMessageSource source(boolean flatTables, CountDownLatch blocked, Locale blockedLocale) {
+    MessageLoader loader = (resource, locale) -> {
+      loads.computeIfAbsent(locale, loc -> new AtomicInteger()).incrementAndGet();
+      try {
+        if (locale.equals(blockedLocale)) {
+          blocked.await();
+        } else if (!locale.equals(Locale.ROOT)) {
+          // slow enough for the requests of a locale to overlap
+          Thread.sleep(20);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return messages.get(locale);
+    };
+    return ResourceBundleMessageSource.forResource("stress").withLoader(loader).withDefaultLocale(Locale.ENGLISH)
+        .withFlatTables(flatTables).build();
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void concurrentColdLoadsRunOncePerLocale(boolean flatTables) throws Exception {
+    ResourceBundleMessageSource source = source(flatTables, null, null);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<String>> results = new ArrayList<>();
+    for (int i = 0; i < TASKS; i++) {
+      Context context = Context.of(locales.get(i % LOCALES));
+      results.add(executor.submit(() -> {
+        start.await();
+        return source.msg("greeting", context, "x");
+      }));
+    }
+    start.countDown();
+
+    for (int i = 0; i < TASKS; i++) {
+      assertEquals(locales.get(i % LOCALES) + " x", results.get(i).get(30, TimeUnit.SECONDS));
+    }
+    for (Locale locale : locales) {
+      assertEquals(1, loads.get(locale).get(), locale.toString());
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void blockedLoadDoesNotStallOtherLocales(boolean flatTables) throws Exception {
+    Locale slow = locales.get(0);
+    CountDownLatch blocked = new CountDownLatch(1);
+    ResourceBundleMessageSource source = source(flatTables, blocked, slow);
+    List<Future<String>> waiting = new ArrayList<>();
+    for (int i = 0; i < TASKS / 5; i++) {
+      waiting.add(executor.submit(() -> source.msg("greeting", Context.of(slow), "x")));
+    }
+    while (loads.get(slow) == null) {
+      Thread.sleep(1);
+    }
+
+    // loaded and cold locales are served while the slow one is loading
+    for (Locale locale : List.of(Locale.ENGLISH, locales.get(1), locales.get(2))) {
+      String message = CompletableFuture.supplyAsync(() -> source.msg("greeting", Context.of(locale), "x"))
+          .get(10, TimeUnit.SECONDS);
+      assertEquals(locale + " x", message);
+    }
+    assertFalse(waiting.get(0).isDone());
+
+    blocked.countDown();
+    for (Future<String> result : waiting) {
+      assertEquals(slow + " x", result.get(30, TimeUnit.SECONDS));
+    }
+    assertEquals(1, loads.get(slow).get());
+    assertTrue(source.preload(slow).isDone());
+  }
+}
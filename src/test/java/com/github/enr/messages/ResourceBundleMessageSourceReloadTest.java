@@ -0,0 +1,153 @@
+package com.github.enr.messages;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResourceBundleMessageSourceReloadTest {
+
+  @TempDir
+  Path classpath;
+
+  private Path bundleFile;
+  private ClassLoader classLoader;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Path dir = Files.createDirectories(classpath.resolve("reload"));
+    bundleFile = dir.resolve("messages_en.properties");
+    Files.writeString(bundleFile, "greeting=Hello {0}\n");
+    classLoader = new URLClassLoader(new URL[] {classpath.toUri().toURL()}, null);
+  }
+
+  @Test
+  void testReloadPublishesNewMessages() throws IOException {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource("reload.messages")
+        .withClassLoader(classLoader).withDefaultLocale(Locale.ENGLISH).build();
+    Context context = new Context(Locale.ENGLISH);
+    assertEquals("Hello John", source.msg("greeting", context, "John"));
+
+    update("greeting=Hi {0}\n");
+    source.reload();
+
+    assertEquals("Hi John", source.msg("greeting", context, "John"));
+  }
+
+  @Test
+  void testReloadReplacesTemplatesById() throws IOException {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource("reload.messages")
+        .withClassLoader(classLoader).withDefaultLocale(Locale.ENGLISH).withCompactStorage(true).build();
+    MessageKey greeting = MessageKeys.of("greeting").get(0);
+    Context context = Context.of(Locale.ENGLISH);
+    assertEquals("Hello John", source.msgFor(greeting, context, "John"));
+
+    update("greeting=Hi {0}\n");
+    source.reload();
+
+    assertEquals("Hi John", source.msgFor(greeting, context, "John"));
+  }
+
+  @Test
+  void testReloadClearsRenderedMessages() throws IOException {
+    RenderedMessageCache cache = new RenderedMessageCache();
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource("reload.messages")
+        .withClassLoader(classLoader).withDefaultLocale(Locale.ENGLISH).withResultCache(cache).build();
+    Context context = Context.of(Locale.ENGLISH);
+    assertEquals("Hello John", source.msg("greeting", context, "John"));
+    assertEquals(1, cache.size());
+
+    update("greeting=Hi {0}\n");
+    source.reload();
+
+    assertEquals("Hi John", source.msg("greeting", context, "John"));
+  }
+
+  @Test
+  void testReloadReplacesMessagesSnapshots() throws IOException {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource("reload.messages")
+        .withClassLoader(classLoader).withDefaultLocale(Locale.ENGLISH).build();
+    Context context = new Context(Locale.ENGLISH);
+    Map<String, String> snapshot = source.getAllMessagesKeyAndValue(context);
+    assertSame(snapshot, source.getAllMessagesKeyAndValue(context));
+    assertEquals(Map.of("greeting", "Hello {0}"), source.getAllMessagesKeyAndValue(context, "greet"));
+
+    update("greeting=Hi {0}\ngreeting.short=Hi\n");
+    source.reload();
+
+    assertEquals(Map.of("greeting", "Hi {0}", "greeting.short", "Hi"), source.getAllMessagesKeyAndValue(context));
+    assertEquals(Map.of("greeting.short", "Hi"), source.getAllMessagesKeyAndValue(context, "greeting."));
+  }
+
+  @Test
+  void testWatcherReloadsChangedFiles() throws Exception {
+    try (ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource("reload.messages")
+        .withClassLoader(classLoader).withDefaultLocale(Locale.ENGLISH).withReloading(Duration.ofMillis(20)).build()) {
+      assertTrue(source.isReloading());
+      assertTrue(source.isFlatTables());
+      Context context = new Context(Locale.ENGLISH);
+      assertEquals("Hello John", source.msg("greeting", context, "John"));
+
+      update("greeting=Hi {0}\nadded=new key\n");
+
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+      while (!"new key".equals(source.msg("added", context)) && System.nanoTime() < deadline) {
+        Thread.sleep(20);
+      }
+      assertEquals("new key", source.msg("added", context));
+      assertEquals("Hi John", source.msg("greeting", context, "John"));
+    }
+  }
+
+  @Test
+  void testWatcherDetectsChanges() throws IOException {
+    BundleFilesWatcher watcher = new BundleFilesWatcher(classLoader, "reload.messages", null);
+    assertEquals(1, watcher.findFiles().size());
+    assertFalse(watcher.hasChanged());
+
+    update("greeting=Hi\n");
+    assertTrue(watcher.hasChanged());
+    assertFalse(watcher.hasChanged());
+
+    Files.writeString(bundleFile.resolveSibling("messages_it.properties"), "greeting=Ciao\n");
+    assertTrue(watcher.hasChanged());
+    assertEquals(2, watcher.findFiles().size());
+  }
+
+  @Test
+  void testReloadingIsNotEnabledByDefault() {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource("reload.messages")
+        .withClassLoader(classLoader).withDefaultLocale(Locale.ENGLISH).build();
+    assertFalse(source.isReloading());
+    source.close();
+  }
+
+  @Test
+  void testInvalidReloadInterval() {
+    ResourceBundleMessageSource.Builder builder = ResourceBundleMessageSource.forResource("reload.messages");
+    assertThrows(IllegalArgumentException.class, () -> builder.withReloading(Duration.ZERO));
+  }
+
+  private void update(String content) throws IOException {
+    Files.writeString(bundleFile, content);
+    // make sure the change is visible even on file systems with a coarse timestamp resolution
+    Files.setLastModifiedTime(bundleFile, FileTime.from(Instant.now().plusSeconds(5)));
+  }
+}
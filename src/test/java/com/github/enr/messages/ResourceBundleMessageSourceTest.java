@@ -4,6 +4,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doReturn;
@@ -13,21 +15,36 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 import java.util.Map;
-import java.util.MissingResourceException;
 import java.util.ResourceBundle;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mockito;
 
 class ResourceBundleMessageSourceTest {
@@ -131,6 +148,68 @@ class ResourceBundleMessageSourceTest {
         .containsEntry("test.message.both", "messages");
   }
 
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testGetAllMessagesIsCachedAndImmutable(boolean flatTables) {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource(RESOURCE_BUNDLE_NAME)
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withFlatTables(flatTables).build();
+    Context context = new Context(Locale.ITALIAN);
+
+    Map<String, String> result = source.getAllMessagesKeyAndValue(context);
+    assertSame(result, source.getAllMessagesKeyAndValue(context));
+    assertThrows(UnsupportedOperationException.class, () -> result.put("test.foo", "changed"));
+
+    source.clearCache();
+    assertNotSame(result, source.getAllMessagesKeyAndValue(context));
+    assertEquals(result, source.getAllMessagesKeyAndValue(context));
+  }
+
+  @Test
+  void testGetAllMessagesWithPrefix() {
+    Context context = new Context(Locale.ENGLISH);
+
+    Map<String, String> result = messageSource.getAllMessagesKeyAndValue(context, "test.message.");
+    assertThat(result).containsExactly(Map.entry("test.message.both", "messages"),
+        Map.entry("test.message.only-fallback", "fallback"));
+    assertThrows(UnsupportedOperationException.class, () -> result.remove("test.message.both"));
+    assertThat(messageSource.getAllMessagesKeyAndValue(context, "")).hasSize(4);
+    assertThat(messageSource.getAllMessagesKeyAndValue(context, "nothing")).isEmpty();
+    assertThat(messageSource.getAllMessagesKeyAndValue(context, "test.foo")).containsOnlyKeys("test.foo");
+  }
+
+  @Test
+  void testJsonCatalogIsCachedUntilReload() {
+    Context context = new Context(Locale.ITALIAN);
+
+    JsonCatalog catalog = messageSource.getJsonCatalog(context, "test.message.");
+    assertEquals("{\"test.message.both\":\"messages italiano\",\"test.message.only-fallback\":\"fallback italiano\"}",
+        catalog.toString());
+    assertSame(catalog, messageSource.getJsonCatalog(context, "test.message."));
+    assertEquals(4, messageSource.getJsonCatalog(context, "").size());
+
+    messageSource.reload();
+    JsonCatalog reloaded = messageSource.getJsonCatalog(context, "test.message.");
+    assertNotSame(catalog, reloaded);
+    assertEquals(catalog.getETag(), reloaded.getETag());
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testCanonicalContextsUseSlots(boolean flatTables) {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource(RESOURCE_BUNDLE_NAME)
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH).withFlatTables(flatTables)
+        .build();
+    Context context = Context.of(Locale.ITALIAN);
+
+    assertEquals("messages italiano", source.msg("test.message.both", context));
+    assertEquals("fallback italiano", source.msg("test.message.only-fallback", context));
+    assertEquals("messages italiano", source.msg("test.message.both", new Context(Locale.ITALIAN)));
+
+    String slots = flatTables ? "flatTableSlots" : "mainBundleSlots";
+    AtomicReferenceArray<?> table = (AtomicReferenceArray<?>) getCacheField(source, slots);
+    assertNotNull(table.get(context.getSlot()));
+  }
+
   @Test
   void testNullKey() {
     Context context = new Context(Locale.ENGLISH);
@@ -183,6 +262,7 @@ class ResourceBundleMessageSourceTest {
     doReturn(mockMainBundle).when(spiedSource).getMainBundle(frenchContext);
     doReturn(mockFallbackBundle).when(spiedSource).getFallbackBundle(frenchContext);
 
+    when(mockMainBundle.containsKey("duplicate.key")).thenReturn(true);
     when(mockMainBundle.getString("duplicate.key")).thenReturn("Main Value");
     // fallback bundle is not mocked to return a value for this key, but we verify it's not called.
 
@@ -202,13 +282,14 @@ class ResourceBundleMessageSourceTest {
     doReturn(mockMainBundle).when(spiedSource).getMainBundle(germanContext);
     doReturn(mockFallbackBundle).when(spiedSource).getFallbackBundle(germanContext);
 
-    when(mockMainBundle.getString("only.in.fallback")).thenThrow(new MissingResourceException("", "", ""));
+    when(mockMainBundle.containsKey("only.in.fallback")).thenReturn(false);
+    when(mockFallbackBundle.containsKey("only.in.fallback")).thenReturn(true);
     when(mockFallbackBundle.getString("only.in.fallback")).thenReturn("Fallback Value");
 
     String result = spiedSource.getMessageTemplate("only.in.fallback", germanContext);
 
     assertEquals("Fallback Value", result);
-    verify(mockMainBundle, times(1)).getString("only.in.fallback");
+    verify(mockMainBundle, never()).getString("only.in.fallback");
     verify(mockFallbackBundle, times(1)).getString("only.in.fallback");
   }
 
@@ -222,15 +303,18 @@ class ResourceBundleMessageSourceTest {
     doReturn(mockMainBundle).when(spiedSource).getMainBundle(spanishContext);
     doReturn(mockFallbackBundle).when(spiedSource).getFallbackBundle(spanishContext);
 
-    when(mockMainBundle.getString("nonexistent.key")).thenThrow(new MissingResourceException("", "", ""));
-    when(mockFallbackBundle.getString("nonexistent.key")).thenThrow(new MissingResourceException("", "", ""));
+    when(mockMainBundle.containsKey("nonexistent.key")).thenReturn(false);
+    when(mockFallbackBundle.containsKey("nonexistent.key")).thenReturn(false);
 
     // The current design returns null from getMessageTemplate, and the MessageSourceBase handles it
     String result = spiedSource.msg("nonexistent.key", spanishContext);
     assertEquals("{nonexistent.key}", result);
 
-    verify(mockMainBundle, times(1)).getString("nonexistent.key");
-    verify(mockFallbackBundle, times(1)).getString("nonexistent.key");
+    // Missing keys are detected without calling getString and paying for a MissingResourceException
+    verify(mockMainBundle, times(1)).containsKey("nonexistent.key");
+    verify(mockFallbackBundle, times(1)).containsKey("nonexistent.key");
+    verify(mockMainBundle, never()).getString("nonexistent.key");
+    verify(mockFallbackBundle, never()).getString("nonexistent.key");
   }
 
   @Test
@@ -301,12 +385,490 @@ class ResourceBundleMessageSourceTest {
     assertTrue(getCache(messageSource, "fallbackBundleCache").isEmpty());
   }
 
+  @Test
+  void testFlatTablesResolveMainAndFallback() {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource(RESOURCE_BUNDLE_NAME)
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH).withFlatTables(true).build();
+    Context context = new Context(Locale.ITALIAN);
+
+    assertTrue(source.isFlatTables());
+    assertEquals("messages italiano", source.msg("test.message.both", context));
+    assertEquals("fallback italiano", source.msg("test.message.only-fallback", context));
+    assertEquals("Benvenuto John!", source.msg("welcome.message", context, "John"));
+    assertEquals("{non.existent.key}", source.msg("non.existent.key", context));
+  }
+
+  @Test
+  void testFlatTablesIncludeParentChain() {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource("messages.chain")
+        .withDefaultLocale(Locale.ENGLISH).withFlatTables(true).build();
+    Context context = new Context(Locale.ITALIAN);
+
+    assertEquals("italiano", source.msg("chain.both", context));
+    assertEquals("root", source.msg("root.only", context));
+  }
+
+  @Test
+  void testFlatTableIsBuiltOncePerLocaleAndImmutable() {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource(RESOURCE_BUNDLE_NAME)
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withFlatTables(true).build();
+    Context context = new Context(Locale.ITALIAN);
+    source.msg("test.foo", context);
+    source.msg("test.message.both", context);
+
+    Map<Locale, Map<String, String>> tables = getFlatTables(source);
+    assertEquals(1, tables.size());
+    Map<String, String> table = tables.get(Locale.ITALIAN);
+    assertThat(table).hasSize(4).containsEntry("test.message.only-fallback", "fallback italiano");
+    assertThrows(UnsupportedOperationException.class, () -> table.put("test.foo", "baz"));
+
+    source.clearCache();
+    assertTrue(getFlatTables(source).isEmpty());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"messages.test", "messages.chain", "messages.locale"})
+  void testCompactStorageResolvesLikeFlatTables(String resource) {
+    ResourceBundleMessageSource flat = ResourceBundleMessageSource.forResource(resource)
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH).withDefaultLocaleFallback(true)
+        .withFlatTables(true).build();
+    ResourceBundleMessageSource compact = ResourceBundleMessageSource.forResource(resource)
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH).withDefaultLocaleFallback(true)
+        .withCompactStorage(true).build();
+
+    assertTrue(compact.isCompactStorage());
+    assertTrue(compact.isFlatTables());
+    for (Locale locale : List.of(Locale.ENGLISH, Locale.ITALIAN, Locale.ITALY, Locale.GERMAN)) {
+      Context context = Context.of(locale);
+      Map<String, String> expected = flat.getAllMessagesKeyAndValue(context);
+      assertEquals(expected, compact.getAllMessagesKeyAndValue(context));
+      for (String key : expected.keySet()) {
+        assertEquals(flat.msg(key, context, "John"), compact.msg(key, context, "John"));
+      }
+      assertEquals("{missing}", compact.msg("missing", context));
+    }
+  }
+
+  @Test
+  void testCompactStorageSharesKeysAndValues() throws Exception {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource(RESOURCE_BUNDLE_NAME)
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH).withCompactStorage(true).build();
+    source.msg("test.foo", Context.of(Locale.ITALIAN));
+
+    Map<Locale, Map<String, String>> tables = getFlatTables(source);
+    assertEquals(Set.of(Locale.ENGLISH, Locale.ITALIAN), tables.keySet());
+    Map.Entry<String, String> english = entry(tables.get(Locale.ENGLISH), "test.foo");
+    Map.Entry<String, String> italian = entry(tables.get(Locale.ITALIAN), "test.foo");
+    assertSame(english.getKey(), italian.getKey());
+    assertSame(english.getValue(), italian.getValue());
+    assertThrows(UnsupportedOperationException.class, () -> tables.get(Locale.ITALIAN).put("test.foo", "baz"));
+    // the tables replace the bundles
+    assertTrue(getCache(source, "mainBundleCache").isEmpty());
+    assertTrue(getCache(source, "fallbackBundleCache").isEmpty());
+    assertEquals(2, source.getCacheStatistics().getLoadedLocales());
+  }
+
+  private static Map.Entry<String, String> entry(Map<String, String> table, String key) {
+    return table.entrySet().stream().filter(e -> e.getKey().equals(key)).findFirst().orElseThrow();
+  }
+
+  @Test
+  void testCatalogMemoryReport() {
+    ResourceBundleMessageSource bundles = ResourceBundleMessageSource.forResource(RESOURCE_BUNDLE_NAME)
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH).build();
+    ResourceBundleMessageSource compact = ResourceBundleMessageSource.forResource(RESOURCE_BUNDLE_NAME)
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH).withCompactStorage(true).build();
+    bundles.msg("test.foo", Context.of(Locale.ITALIAN));
+    compact.msg("test.foo", Context.of(Locale.ITALIAN));
+
+    CatalogMemory bundlesMemory = bundles.getCatalogMemory();
+    CatalogMemory compactMemory = compact.getCatalogMemory();
+    assertEquals(2, bundlesMemory.getLocales());
+    assertEquals(2, compactMemory.getLocales());
+    assertEquals(8, compactMemory.getEntries());
+    assertEquals(bundlesMemory.getEntries(), compactMemory.getEntries());
+    // test.foo=bar in both locales, keys shared across locales
+    assertEquals(4, compactMemory.getKeyInstances());
+    assertEquals(7, compactMemory.getValueInstances());
+    assertTrue(bundlesMemory.getKeyInstances() > compactMemory.getKeyInstances());
+    assertTrue(bundlesMemory.getEstimatedBytes() > compactMemory.getEstimatedBytes());
+    assertEquals(24 + 24, CatalogMemory.stringBytes("bar"));
+    assertEquals(24 + 24, CatalogMemory.stringBytes("€"));
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testLookupByKeyId(boolean flatTables) throws Exception {
+    ResourceBundleMessageSource source = spy(ResourceBundleMessageSource.forResource("messages.locale")
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH).withDefaultLocaleFallback(true)
+        .withFlatTables(flatTables).build());
+    MessageKeys keys = MessageKeys.of("locale.both", "default.only", "test.message.only-fallback", "missing");
+    Context italian = Context.of(Locale.ITALIAN);
+
+    for (Context context : List.of(italian, new Context(Locale.ITALY), Context.of(Locale.ENGLISH))) {
+      for (MessageKey key : keys.getKeys()) {
+        assertEquals(source.msg(key.getKey(), context), source.msgFor(key, context));
+      }
+    }
+    assertEquals("italiano", source.msgFor(keys.get(0), italian));
+    assertEquals("english only", source.msgFor(keys.get(1), italian));
+    assertEquals("{missing}", source.msgFor(keys.get(3), italian));
+
+    // resolved once per key set and locale, then read by id
+    Mockito.clearInvocations(source);
+    source.msgFor(keys.get(0), italian);
+    source.msgFor(keys.get(2), italian);
+    verify(source, never()).resolvingTemplateLookup(Mockito.any());
+    verify(source, never()).resolveMessageTemplate(Mockito.anyString(), Mockito.any());
+    assertThrows(IllegalArgumentException.class, () -> source.msgFor(null, italian));
+  }
+
+  @Test
+  void testLocalesResolvingToTheSameBundlesShareIdTables() throws Exception {
+    ResourceBundleMessageSource source = spy(ResourceBundleMessageSource.forResource("messages.locale")
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH).withDefaultLocaleFallback(true)
+        .build());
+    MessageKeys keys = MessageKeys.of("locale.both", "default.only");
+    for (int i = 0; i < ResourceBundleMessageSource.MAX_TRACKED_LOCALES + 50; i++) {
+      Context context = new Context(new Locale("it", "", "v" + i));
+      assertEquals("italiano", source.msgFor(keys.get(0), context));
+      assertEquals("english only", source.msgFor(keys.get(1), context));
+    }
+
+    verify(source, times(1)).resolvingTemplateLookup(Mockito.any());
+    Object tables = ((Map<?, ?>) getCacheField(source, "idTables")).get(keys);
+    Field byLocale = tables.getClass().getDeclaredField("byLocale");
+    byLocale.setAccessible(true);
+    assertEquals(ResourceBundleMessageSource.MAX_TRACKED_LOCALES, ((Map<?, ?>) byLocale.get(tables)).size());
+  }
+
+  @Test
+  void testMessageKeysMustBeUnique() {
+    assertThrows(IllegalArgumentException.class, () -> MessageKeys.of("a", "b", "a"));
+    assertThrows(IllegalArgumentException.class, () -> MessageKeys.of("a", null));
+    MessageKeys keys = MessageKeys.of("a", "b");
+    assertEquals(2, keys.size());
+    assertSame(keys, keys.get(1).getKeys());
+    assertEquals(1, keys.get(1).getId());
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testDefaultLocaleFallback(boolean flatTables) {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource("messages.locale")
+        .withDefaultLocale(Locale.ENGLISH).withDefaultLocaleFallback(true).withFlatTables(flatTables).build();
+    Context context = new Context(Locale.ITALIAN);
+
+    assertTrue(source.isUseDefaultLocaleFallback());
+    assertEquals("english only", source.msg("default.only", context));
+    assertEquals("italiano", source.msg("locale.both", context));
+    assertEquals("{missing}", source.msg("missing", context));
+    assertThat(source.msgs(List.of("default.only", "locale.both"), context))
+        .containsExactly(Map.entry("default.only", "english only"), Map.entry("locale.both", "italiano"));
+  }
+
+  @Test
+  void testDefaultLocaleFallbackDisabledByDefault() {
+    ResourceBundleMessageSource source =
+        ResourceBundleMessageSource.forResource("messages.locale").withDefaultLocale(Locale.ENGLISH).build();
+
+    assertFalse(source.isUseDefaultLocaleFallback());
+    assertEquals("{default.only}", source.msg("default.only", new Context(Locale.ITALIAN)));
+  }
+
+  @Test
+  void testDefaultLocaleFallbackChainIsResolvedOnce() throws Exception {
+    CountingMessageMetrics metrics = new CountingMessageMetrics();
+    ResourceBundleMessageSource source = spy(ResourceBundleMessageSource.forResource("messages.locale")
+        .withDefaultLocale(Locale.ENGLISH).withDefaultLocaleFallback(true).withMetrics(metrics).build());
+    Context context = new Context(Locale.ITALIAN);
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals("english only", source.msg("default.only", context));
+    }
+
+    // the chain is walked by the source itself, never through the per-locale lookup
+    verify(source, never()).getMessageTemplate(Mockito.anyString(), Mockito.any());
+    Map<?, ?> resolutions = (Map<?, ?>) ((Map<?, ?>) getCacheField(source, "resolutions")).get(Locale.ITALIAN);
+    assertEquals(Set.of("default.only"), resolutions.keySet());
+    assertEquals(3, metrics.getDefaultLocaleFallbacks());
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testDefaultLocaleFallbacksAreCountedAsMessageSourceBaseDoes(boolean flatTables) {
+    CountingMessageMetrics metrics = new CountingMessageMetrics();
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource("messages.locale")
+        .withDefaultLocale(Locale.ENGLISH).withDefaultLocaleFallback(true).withFlatTables(flatTables)
+        .withMissingKeyCacheSize(10).withMetrics(metrics).build();
+    Context context = new Context(Locale.ITALIAN);
+
+    source.msg("locale.both", context);
+    source.msg("default.only", context);
+    source.msg("missing.key", context);
+    source.msg("missing.key", context);
+    source.msgs(List.of("default.only", "missing.key"), context);
+
+    // every lookup not found for the locale, found or not for the default one
+    assertEquals(5, metrics.getDefaultLocaleFallbacks());
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testMetricsCountBundleHits(boolean flatTables) {
+    CountingMessageMetrics metrics = new CountingMessageMetrics();
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource(RESOURCE_BUNDLE_NAME)
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH).withFlatTables(flatTables)
+        .withMetrics(metrics).build();
+    Context context = new Context(Locale.ITALIAN);
+
+    source.msg("test.message.both", context);
+    source.msg("test.message.only-fallback", context);
+    source.msgs(List.of("test.message.both", "missing"), context);
+
+    assertEquals(4, metrics.getLookups());
+    assertEquals(2, metrics.getMainBundleHits());
+    assertEquals(1, metrics.getFallbackBundleHits());
+    assertEquals(1, metrics.getMissingKeys());
+    assertThat(metrics.getLocaleMetrics()).containsOnlyKeys("it");
+  }
+
+  @Test
+  void testMetricsDoNotReloadBundlesDroppedByCompactStorage() {
+    Map<String, Map<String, String>> files = Map.of("main_it", Map.of("both", "main"), "extra_it",
+        Map.of("both", "extra", "extra.only", "extra"), "main_en", Map.of("english.only", "english"));
+    CountingMessageMetrics metrics = new CountingMessageMetrics();
+    MessageLoader loader = (resource, locale) -> files.get(resource + "_" + locale);
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource("main").withFallbackResource("extra")
+        .withLoader(loader).withDefaultLocale(Locale.ENGLISH).withDefaultLocaleFallback(true).withCompactStorage(true)
+        .withMetrics(metrics).build();
+    Context italian = new Context(Locale.ITALIAN);
+
+    for (int i = 0; i < 2; i++) {
+      assertEquals("main", source.msg("both", italian));
+      assertEquals("extra", source.msg("extra.only", italian));
+      assertEquals("english", source.msg("english.only", italian));
+    }
+
+    assertEquals(2, metrics.getMainBundleHits());
+    assertEquals(2, metrics.getFallbackBundleHits());
+    assertEquals(2, metrics.getDefaultLocaleFallbacks());
+    assertThat(getCache(source, "mainBundleCache")).isEmpty();
+    assertThat(getCache(source, "fallbackBundleCache")).isEmpty();
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testBatchResolution(boolean flatTables) {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource(RESOURCE_BUNDLE_NAME)
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH).withFlatTables(flatTables)
+        .build();
+    Context context = new Context(Locale.ITALIAN);
+
+    Map<String, String> result =
+        source.msgs(List.of("test.message.both", "test.message.only-fallback", "missing"), context);
+    assertThat(result).containsExactly(Map.entry("test.message.both", "messages italiano"),
+        Map.entry("test.message.only-fallback", "fallback italiano"), Map.entry("missing", "{missing}"));
+
+    String[] withArgs = source.msgsWithArgs(List.of(MessageRequest.of("welcome.message", "John")), context);
+    assertEquals("Benvenuto John!", withArgs[0]);
+  }
+
+  @Test
+  void testWarmUpLoadsLocalesWithGivenExecutor() {
+    AtomicInteger tasks = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource(RESOURCE_BUNDLE_NAME)
+          .withFallbackResource(FALLBACK_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH).withFlatTables(true)
+          .withWarmUpLocales(List.of(Locale.ITALIAN, Locale.FRENCH)).withWarmUpExecutor(command -> {
+            tasks.incrementAndGet();
+            executor.execute(command);
+          }).withWarmUpAwait(true).build();
+
+      assertTrue(source.getWarmUp().isDone());
+      assertEquals(2, tasks.get());
+      assertTrue(getCache(source, "mainBundleCache").containsKey(Locale.ITALIAN));
+      assertTrue(getCache(source, "fallbackBundleCache").containsKey(Locale.FRENCH));
+      assertTrue(getFlatTables(source).containsKey(Locale.ITALIAN));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void testWarmUpDiscoversLocalesOnClasspath() {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource(RESOURCE_BUNDLE_NAME)
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH)
+        .withWarmUpLocalesDiscovery(true).withWarmUpAwait(true).build();
+
+    assertTrue(getCache(source, "mainBundleCache").containsKey(Locale.ITALIAN));
+    assertTrue(getCache(source, "fallbackBundleCache").containsKey(Locale.ITALIAN));
+  }
+
+  @Test
+  void testBundleLocalesDiscovery() {
+    ClassLoader classLoader = getClass().getClassLoader();
+    assertEquals(Set.of(Locale.ENGLISH, Locale.ITALIAN), BundleFiles.findLocales(classLoader, RESOURCE_BUNDLE_NAME));
+    assertEquals(Set.of(Locale.ROOT, Locale.ITALIAN), BundleFiles.findLocales(classLoader, "messages.chain"));
+  }
+
+  @Test
+  void testBundleLocalesDiscoveryInJar(@TempDir Path dir) throws IOException {
+    Path jar = dir.resolve("bundles.jar");
+    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+      out.putNextEntry(new JarEntry("packaged/"));
+      for (String name : List.of("packaged/labels_de.properties", "packaged/labels_pt_BR.properties",
+          "packaged/other_it.properties")) {
+        out.putNextEntry(new JarEntry(name));
+        out.write("key=value\n".getBytes(StandardCharsets.ISO_8859_1));
+      }
+    }
+    try (URLClassLoader classLoader = new URLClassLoader(new URL[] {jar.toUri().toURL()}, null)) {
+      assertEquals(Set.of(Locale.GERMAN, new Locale("pt", "BR")),
+          BundleFiles.findLocales(classLoader, "packaged.labels"));
+    }
+  }
+
+  @Test
+  void testNoWarmUpByDefault() {
+    assertTrue(messageSource.getWarmUp().isDone());
+    assertEquals(1, getCache(messageSource, "mainBundleCache").size());
+  }
+
+  @Test
+  void testMissingBundlesAreCached() {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource("messages.nonexistent")
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH).build();
+    Context context = new Context(Locale.ITALIAN);
+    assertEquals("fallback italiano", source.msg("test.message.both", context));
+    assertEquals("fallback italiano", source.msg("test.message.both", context));
+    assertEquals("{missing}", source.msg("missing", context));
+
+    CacheStatistics statistics = source.getCacheStatistics();
+    // english loaded in the constructor, italian at first access
+    assertEquals(2, statistics.getMissingBundles());
+    assertEquals(2, statistics.getMissingBundleHits());
+    assertEquals(0, statistics.getLoadedLocales());
+
+    source.clearCache();
+    assertEquals(0, source.getCacheStatistics().getMissingBundles());
+  }
+
+  @Test
+  void testMissingBundlesCacheCanBeDisabled() {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource("messages.nonexistent")
+        .withDefaultLocale(Locale.ENGLISH).withMissingBundleCacheSize(0).build();
+    source.msg("missing", new Context(Locale.ITALIAN));
+    assertEquals(0, source.getCacheStatistics().getMissingBundles());
+  }
+
+  @Test
+  void testMissingKeysAreCachedWhenEnabled() throws Exception {
+    ResourceBundleMessageSource spiedSource = spy(new ResourceBundleMessageSource.Builder(RESOURCE_BUNDLE_NAME)
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withMissingKeyCacheSize(10).build());
+    Context context = new Context(Locale.GERMAN);
+    doReturn(mockMainBundle).when(spiedSource).getMainBundle(context);
+    doReturn(mockFallbackBundle).when(spiedSource).getFallbackBundle(context);
+
+    assertEquals("{nonexistent.key}", spiedSource.msg("nonexistent.key", context));
+    assertEquals("{nonexistent.key}", spiedSource.msg("nonexistent.key", context));
+    assertEquals(List.of("{nonexistent.key}"), List.of(spiedSource.msgsWithArgs(
+        List.of(MessageRequest.of("nonexistent.key")), context)));
+
+    verify(mockMainBundle, times(1)).containsKey("nonexistent.key");
+    verify(mockFallbackBundle, times(1)).containsKey("nonexistent.key");
+    CacheStatistics statistics = spiedSource.getCacheStatistics();
+    assertEquals(1, statistics.getMissingKeys());
+    assertEquals(2, statistics.getMissingKeyHits());
+  }
+
+  @Test
+  void testLocalesTrackedForMissingKeysAndResolutionsAreBounded() {
+    ResourceBundleMessageSource source = new ResourceBundleMessageSource.Builder(RESOURCE_BUNDLE_NAME)
+        .withDefaultLocale(Locale.ENGLISH).withDefaultLocaleFallback(true).withMissingKeyCacheSize(10).build();
+    for (int i = 0; i < ResourceBundleMessageSource.MAX_TRACKED_LOCALES + 50; i++) {
+      Context context = new Context(new Locale("en", "", "v" + i));
+      assertEquals("{nonexistent.key}", source.msg("nonexistent.key", context));
+      assertEquals("Welcome John!", source.msg("welcome.message", context, "John"));
+    }
+
+    assertEquals(ResourceBundleMessageSource.MAX_TRACKED_LOCALES, source.getCacheStatistics().getMissingKeys());
+    assertEquals(ResourceBundleMessageSource.MAX_TRACKED_LOCALES,
+        ((Map<?, ?>) getCacheField(source, "resolutions")).size());
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testLocalesResolvingToTheSameBundlesShareFlatTables(boolean compactStorage) {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource(RESOURCE_BUNDLE_NAME)
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH).withFlatTables(true)
+        .withCompactStorage(compactStorage).build();
+    for (int i = 0; i < ResourceBundleMessageSource.MAX_TRACKED_LOCALES + 50; i++) {
+      Context context = new Context(new Locale("it", "", "v" + i));
+      assertEquals("messages italiano", source.msg("test.message.both", context));
+    }
+
+    Map<Locale, Map<String, String>> tables = getFlatTables(source);
+    assertEquals(ResourceBundleMessageSource.MAX_TRACKED_LOCALES, tables.size());
+    assertSame(tables.get(new Locale("it", "", "v0")), tables.get(new Locale("it", "", "v1")));
+    // english built in the constructor with compact storage only
+    assertEquals(compactStorage ? 2 : 1, ((Map<?, ?>) getCacheField(source, "sharedFlatTables")).size());
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  void testLocalesResolvingToTheSameBundlesShareSnapshots(boolean compactStorage) {
+    ResourceBundleMessageSource source = ResourceBundleMessageSource.forResource(RESOURCE_BUNDLE_NAME)
+        .withFallbackResource(FALLBACK_BUNDLE_NAME).withDefaultLocale(Locale.ENGLISH).withDefaultLocaleFallback(true)
+        .withCompactStorage(compactStorage).build();
+    Map<String, String> first = source.getAllMessagesKeyAndValue(new Context(new Locale("it", "", "v0")));
+    Map<String, String> firstSorted = source.getAllMessagesKeyAndValue(new Context(new Locale("it", "", "v0")), "");
+    for (int i = 1; i < ResourceBundleMessageSource.MAX_TRACKED_LOCALES + 50; i++) {
+      Context context = new Context(new Locale("it", "", "v" + i));
+      assertSame(first, source.getAllMessagesKeyAndValue(context));
+      assertSame(firstSorted, source.getAllMessagesKeyAndValue(context, ""));
+    }
+
+    assertThat(first).containsEntry("test.message.both", "messages italiano");
+    assertEquals(ResourceBundleMessageSource.MAX_TRACKED_LOCALES,
+        ((Map<?, ?>) getCacheField(source, "snapshotCache")).size());
+    assertEquals(ResourceBundleMessageSource.MAX_TRACKED_LOCALES,
+        ((Map<?, ?>) getCacheField(source, "sortedSnapshotCache")).size());
+    assertEquals(1, ((Map<?, ?>) getCacheField(source, "sharedSnapshots")).size());
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<Locale, Map<String, String>> getFlatTables(ResourceBundleMessageSource source) {
+    Map<Locale, Map<String, String>> tables = new HashMap<>();
+    ((Map<Locale, ?>) getCacheField(source, "flatTableCache"))
+        .forEach((locale, table) -> tables.put(locale, (Map<String, String>) messages(table)));
+    return tables;
+  }
+
+  private static Object messages(Object flatTable) {
+    try {
+      Method messages = flatTable.getClass().getDeclaredMethod("messages");
+      messages.setAccessible(true);
+      return messages.invoke(flatTable);
+    } catch (ReflectiveOperationException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private ConcurrentHashMap<Locale, ResourceBundle> getCache(ResourceBundleMessageSource source, String cacheName) {
+    return (ConcurrentHashMap<Locale, ResourceBundle>) getCacheField(source, cacheName);
+  }
+
+  private Object getCacheField(ResourceBundleMessageSource source, String cacheName) {
     try {
-      Field cacheField = ResourceBundleMessageSource.class.getDeclaredField(cacheName);
+      Field cachesField = ResourceBundleMessageSource.class.getDeclaredField("caches");
+      cachesField.setAccessible(true);
+      Object caches = cachesField.get(source);
+      Field cacheField = caches.getClass().getDeclaredField(cacheName);
       cacheField.setAccessible(true);
-      return (ConcurrentHashMap<Locale, ResourceBundle>) cacheField.get(source);
+      return cacheField.get(caches);
     } catch (NoSuchFieldException | IllegalAccessException e) {
       throw new RuntimeException(e);
     }
@@ -0,0 +1,163 @@
+package com.github.enr.messages;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TenantMessageSourceRegistryTest {
+
+  private static final Map<String, Map<Locale, Map<String, String>>> OVERRIDES =
+      Map.of("acme", Map.of(Locale.ROOT, Map.of("test.foo", "acme foo"), Locale.ITALIAN,
+          Map.of("welcome.message", "Benvenuto in Acme {0}!")));
+
+  @TempDir
+  Path directory;
+
+  private final List<String> loads = new CopyOnWriteArrayList<>();
+  private final AtomicLong nanoTime = new AtomicLong();
+  private ResourceBundleMessageSource base;
+
+  @BeforeEach
+  void setUp() {
+    base = ResourceBundleMessageSource.forResource("messages.test").withFallbackResource("messages.fallback")
+        .withDefaultLocale(Locale.ENGLISH).build();
+  }
+
+  private TenantMessageSourceRegistry.Builder registry() {
+    MessageLoader loader = (resource, locale) -> {
+      loads.add(resource + ":" + locale);
+      return OVERRIDES.getOrDefault(resource, Map.of()).get(locale);
+    };
+    return TenantMessageSourceRegistry.forBase(base).withOverrides(loader).withNanoTime(nanoTime::get);
+  }
+
+  @Test
+  void overridesAreLayeredOnTheBase() {
+    TenantMessageSource acme = registry().build().forTenant("acme");
+    Context italian = Context.of(Locale.ITALIAN);
+
+    assertEquals("Benvenuto in Acme Mario!", acme.msg("welcome.message", italian, "Mario"));
+    assertEquals("acme foo", acme.msg("test.foo", italian));
+    assertEquals("acme foo", acme.msg("test.foo", Context.of(Locale.forLanguageTag("it-CH"))));
+    assertEquals("fallback italiano", acme.msg("test.message.only-fallback", italian));
+    assertEquals("{missing}", acme.msg("missing", italian));
+    assertEquals(Map.of("welcome.message", "Benvenuto in Acme {0}!", "test.foo", "acme foo", "missing", "{missing}"),
+        acme.msgs(List.of("welcome.message", "test.foo", "missing"), italian));
+    assertEquals("acme foo", acme.getAllMessagesKeyAndValue(italian).get("test.foo"));
+    assertEquals("messages italiano", acme.getAllMessagesKeyAndValue(italian).get("test.message.both"));
+    assertEquals(2, acme.getOverridesSize(Locale.ITALIAN));
+    MessageKeys keys = MessageKeys.of("test.foo", "test.message.both");
+    assertEquals("acme foo", acme.msgFor(keys.get(0), italian));
+    assertEquals("messages italiano", acme.msgFor(keys.get(1), italian));
+  }
+
+  @Test
+  void tenantsWithoutOverridesServeTheBase() {
+    TenantMessageSourceRegistry registry = registry().build();
+    TenantMessageSource other = registry.forTenant("other");
+    Context english = Context.of(Locale.ENGLISH);
+
+    assertEquals("Welcome Mario!", other.msg("welcome.message", english, "Mario"));
+    assertEquals("bar", other.msg("test.foo", english));
+    assertSame(base.getAllMessagesKeyAndValue(english), other.getAllMessagesKeyAndValue(english));
+    assertSame(base.getFormatCache(), other.getFormatCache());
+  }
+
+  @Test
+  void tenantsAreCreatedOnceAndLoadOverridesOncePerLocale() {
+    TenantMessageSourceRegistry registry = registry().build();
+    TenantMessageSource acme = registry.forTenant("acme");
+    acme.msg("test.foo", Context.of(Locale.ITALIAN));
+    acme.msg("test.foo", Context.of(Locale.ITALIAN));
+
+    assertSame(acme, registry.forTenant("acme"));
+    assertEquals(List.of("acme:", "acme:it"), loads);
+    assertEquals(1, registry.size());
+  }
+
+  @Test
+  void leastRecentlyUsedTenantIsEvicted() {
+    TenantMessageSourceRegistry registry = registry().withMaxTenants(2).build();
+    TenantMessageSource first = registry.forTenant("first");
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(2));
+    registry.forTenant("second");
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(2));
+    registry.forTenant("first");
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(2));
+    registry.forTenant("third");
+
+    assertEquals(2, registry.size());
+    assertSame(first, registry.forTenant("first"));
+    TenantMessageSource second = registry.forTenant("second");
+    assertEquals("bar", second.msg("test.foo", Context.of(Locale.ENGLISH)));
+    assertEquals(2, registry.size());
+  }
+
+  @Test
+  void idleTenantsAreEvicted() {
+    TenantMessageSourceRegistry registry = registry().withIdleTimeout(Duration.ofMinutes(1)).build();
+    TenantMessageSource acme = registry.forTenant("acme");
+    registry.forTenant("other");
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(30));
+    registry.forTenant("acme");
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(45));
+
+    assertEquals(1, registry.evictIdle());
+    assertSame(acme, registry.forTenant("acme"));
+    assertEquals(1, registry.size());
+  }
+
+  @Test
+  void evictedTenantsReloadTheirOverrides() {
+    TenantMessageSourceRegistry registry = registry().build();
+    TenantMessageSource acme = registry.forTenant("acme");
+    acme.msg("test.foo", Context.of(Locale.ROOT));
+
+    assertEquals(true, registry.evict("acme"));
+    TenantMessageSource reloaded = registry.forTenant("acme");
+    assertNotSame(acme, reloaded);
+    assertEquals("acme foo", reloaded.msg("test.foo", Context.of(Locale.ROOT)));
+    assertEquals(List.of("acme:", "acme:"), loads);
+  }
+
+  @Test
+  void invalidConfiguration() {
+    assertThrows(IllegalArgumentException.class, () -> TenantMessageSourceRegistry.forBase(null));
+    assertThrows(IllegalArgumentException.class, () -> TenantMessageSourceRegistry.forBase(base).build());
+    assertThrows(IllegalArgumentException.class, () -> registry().withMaxTenants(0));
+    assertThrows(IllegalArgumentException.class, () -> registry().withIdleTimeout(Duration.ZERO));
+    assertThrows(IllegalArgumentException.class, () -> registry().build().forTenant(null));
+  }
+
+  @Test
+  void tenantIdsCannotReachFilesOutsideTheOverrides() throws IOException {
+    Path root = Files.createDirectories(directory.resolve("overrides"));
+    Files.writeString(root.resolve("acme.properties"), "test.foo=acme foo\n", StandardCharsets.UTF_8);
+    Files.writeString(directory.resolve("secret.properties"), "k=SECRET\n", StandardCharsets.UTF_8);
+    TenantMessageSourceRegistry registry =
+        TenantMessageSourceRegistry.forBase(base).withOverrides(MessageLoader.directory(root)).build();
+
+    assertEquals("acme foo", registry.forTenant("acme").msg("test.foo", Context.of(Locale.ITALIAN)));
+    for (String tenantId : List.of("..secret", "acme.sub", "../secret", "/secret", "", "acme co")) {
+      assertThrows(IllegalArgumentException.class, () -> registry.forTenant(tenantId), tenantId);
+    }
+    assertEquals(1, registry.size());
+  }
+}